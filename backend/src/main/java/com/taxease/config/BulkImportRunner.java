@@ -0,0 +1,82 @@
+package com.taxease.config;
+
+import com.taxease.service.BulkImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line entry point for bulk imports:
+ * {@code mvn spring-boot:run -Dspring-boot.run.arguments="--import=income --import-file=incomes.csv"}
+ * loads the file, writes the NDJSON report next to it and exits (non-zero if
+ * any row was rejected). The import id defaults to the file name, so
+ * re-running the same command after a failure resumes from the last
+ * checkpoint. Optional: {@code --import-format}, {@code --import-id},
+ * {@code --import-user}, {@code --import-batch-size}, {@code --import-report}.
+ */
+@Component
+public class BulkImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportRunner.class);
+
+    private static final String OPTION = "import";
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        String file = option(args, "import-file");
+        if (file == null) {
+            throw new IllegalArgumentException("--import-file is required");
+        }
+        Path source = Path.of(file);
+        String format = option(args, "import-format");
+        if (format == null) {
+            format = source.getFileName().toString().toLowerCase().endsWith(".csv") ? "csv" : "ndjson";
+        }
+        String importId = option(args, "import-id");
+        String batchSize = option(args, "import-batch-size");
+        BulkImportService.ImportRequest request = bulkImportService.request(option(args, OPTION), format, null,
+                importId != null ? importId : source.getFileName().toString(),
+                option(args, "import-user"), batchSize != null ? Integer.valueOf(batchSize) : null);
+
+        String report = option(args, "import-report");
+        Path reportPath = report != null ? Path.of(report) : Path.of(file + ".report.ndjson");
+        log.info("Importing {} from {} as {} (import id {}), report: {}",
+                request.kind().getValue(), source, request.format(), request.importId(), reportPath);
+
+        Map<String, Object> result;
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = Files.newOutputStream(reportPath)) {
+            result = bulkImportService.run(request, in, out);
+        }
+        log.info("Import finished: {}", result);
+        long failed = ((Number) result.get("failed")).longValue();
+        System.exit(SpringApplication.exit(context, () -> failed > 0 ? 1 : 0));
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -0,0 +1,142 @@
+package com.taxease.config;
+
+import com.taxease.model.Income;
+import com.taxease.model.Investment;
+import com.taxease.model.TaxReport;
+import com.taxease.model.User;
+import com.taxease.model.UserInvestment;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Explains every hot repository query once the application is up and reports
+ * any that would scan a whole collection. {@code mongo.index-verification}
+ * selects {@code warn} (log only), {@code fail} (abort startup) or {@code off}.
+ */
+@Component
+public class IndexVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexVerifier.class);
+
+    private static final String SAMPLE_USER = "index-check";
+    private static final String SAMPLE_YEAR = "2024-25";
+
+    private record Check(String name, Class<?> entity, Query query) {}
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${mongo.index-verification:warn}")
+    private String mode;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+
+        List<Check> checks = checks();
+        List<String> scans = new ArrayList<>();
+        for (Check check : checks) {
+            try {
+                if (containsStage(winningPlan(check), "COLLSCAN")) {
+                    scans.add(check.name());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not explain {}: {}", check.name(), e.getMessage());
+            }
+        }
+
+        if (scans.isEmpty()) {
+            log.info("Index verification passed for {} queries", checks.size());
+            return;
+        }
+        String message = "Queries without a usable index (COLLSCAN): " + String.join(", ", scans);
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    // One entry per repository method (and aggregation $match) that serves requests
+    private static List<Check> checks() {
+        Criteria user = Criteria.where("userId").is(SAMPLE_USER);
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        return List.of(
+                new Check("Income listing by userId", Income.class, Query.query(user).with(newestFirst)),
+                new Check("Income listing by userId and financialYear", Income.class,
+                        Query.query(userAndYear()).with(newestFirst)),
+                new Check("Investment listing by userId", Investment.class, Query.query(user).with(newestFirst)),
+                new Check("Investment listing by userId and financialYear", Investment.class,
+                        Query.query(userAndYear()).with(newestFirst)),
+                new Check("UserInvestmentRepository.findByUserIdAndFinancialYearOrderBySectionAsc",
+                        UserInvestment.class, Query.query(userAndYear()).with(Sort.by("section"))),
+                new Check("UserInvestmentRepository.findByUserIdAndFinancialYearAndSection",
+                        UserInvestment.class, Query.query(userAndYear()
+                                .and("section").is(UserInvestment.Section.SECTION_80C))),
+                new Check("TaxReport listing by userId", TaxReport.class, Query.query(user).with(newestFirst)),
+                new Check("TaxReport count by userId and financialYear", TaxReport.class,
+                        Query.query(userAndYear())),
+                new Check("UserRepository.findByEmail", User.class,
+                        Query.query(Criteria.where("email").is("index-check@example.com"))),
+                new Check("UserRepository.findByPan", User.class,
+                        Query.query(Criteria.where("pan").is("INDEX0000C"))));
+    }
+
+    private static Criteria userAndYear() {
+        return Criteria.where("userId").is(SAMPLE_USER).and("financialYear").is(SAMPLE_YEAR);
+    }
+
+    private Document winningPlan(Check check) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(check.entity());
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+
+        Document find = new Document("find", entity.getCollection())
+                .append("filter", mapper.getMappedObject(check.query().getQueryObject(), entity));
+        if (check.query().isSorted()) {
+            find.append("sort", mapper.getMappedSort(check.query().getSortObject(), entity));
+        }
+        Document explain = mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        return queryPlanner != null ? queryPlanner.get("winningPlan", Document.class) : null;
+    }
+
+    // Plans nest through inputStage, inputStages and (on newer servers) queryPlan
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Map<?, ?> map) {
+            if (stage.equals(map.get("stage"))) {
+                return true;
+            }
+            for (Object child : map.values()) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
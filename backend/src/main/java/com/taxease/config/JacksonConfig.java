@@ -0,0 +1,21 @@
+package com.taxease.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers Blackbird with the application ObjectMapper (MVC and WebFlux
+ * codecs alike). It replaces reflective getter, field and constructor access
+ * with generated lambdas, which mostly pays off for the record DTOs and
+ * models serialized on every request.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,129 @@
+package com.taxease.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.taxease.service.SlowOperationRecorder;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds Mongo commands into the {@link SlowOperationRecorder}. The command
+ * document is only valid inside {@code commandStarted}, so its shape (field
+ * names and operators, every value replaced by {@code ?}) is taken there and
+ * kept until the reply arrives.
+ */
+public class SlowCommandListener implements CommandListener {
+
+    // Connection handshakes and session housekeeping, never interesting here
+    private static final Set<String> IGNORED = Set.of(
+            "hello", "isMaster", "ismaster", "ping", "buildInfo", "saslStart", "saslContinue", "endSessions");
+
+    // Parts of a command that describe the query; documents being written are left out
+    private static final List<String> SHAPE_FIELDS = List.of(
+            "filter", "query", "sort", "projection", "pipeline", "update", "updates", "deletes");
+
+    private static final int MAX_DEPTH = 6;
+    private static final int MAX_SHAPE_LENGTH = 512;
+
+    private record Started(String collection, String shape, String handler) {}
+
+    private final SlowOperationRecorder recorder;
+
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+
+    public SlowCommandListener(SlowOperationRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!recorder.isEnabled() || IGNORED.contains(event.getCommandName())) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        inFlight.put(event.getRequestId(), new Started(
+                collectionOf(command, event.getCommandName()), shapeOf(command), recorder.currentHandler()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        if (started != null) {
+            recorder.mongoCommand(event.getCommandName(), started.collection(), started.shape(),
+                    started.handler(), event.getElapsedTime(TimeUnit.NANOSECONDS), null);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        if (started != null) {
+            recorder.mongoCommand(event.getCommandName(), started.collection(), started.shape(),
+                    started.handler(), event.getElapsedTime(TimeUnit.NANOSECONDS),
+                    event.getThrowable().getMessage());
+        }
+    }
+
+    // find, aggregate, update, ... name the collection in their first field; getMore in "collection"
+    private static String collectionOf(BsonDocument command, String commandName) {
+        BsonValue target = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        return target != null && target.isString() ? target.asString().getValue() : null;
+    }
+
+    static String shapeOf(BsonDocument command) {
+        StringBuilder shape = new StringBuilder("{");
+        for (String field : SHAPE_FIELDS) {
+            BsonValue value = command.get(field);
+            if (value != null) {
+                if (shape.length() > 1) {
+                    shape.append(", ");
+                }
+                shape.append(field).append(": ");
+                appendShape(shape, value, 0);
+            }
+            if (shape.length() > MAX_SHAPE_LENGTH) {
+                return shape.substring(0, MAX_SHAPE_LENGTH) + "...";
+            }
+        }
+        return shape.append('}').toString();
+    }
+
+    // Keeps keys and operators, drops values; arrays are represented by their first element
+    private static void appendShape(StringBuilder out, BsonValue value, int depth) {
+        if (depth >= MAX_DEPTH) {
+            out.append("...");
+        } else if (value instanceof BsonDocument document) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<String, BsonValue> entry : document.entrySet()) {
+                if (!first) {
+                    out.append(", ");
+                }
+                first = false;
+                out.append(entry.getKey()).append(": ");
+                appendShape(out, entry.getValue(), depth + 1);
+            }
+            out.append('}');
+        } else if (value instanceof BsonArray array) {
+            out.append('[');
+            if (!array.isEmpty()) {
+                appendShape(out, array.get(0), depth + 1);
+                if (array.size() > 1) {
+                    out.append(", ...");
+                }
+            }
+            out.append(']');
+        } else {
+            out.append('?');
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.taxease.config;
+
+import com.taxease.service.SlowOperationRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires the {@link SlowOperationRecorder} into the Mongo driver (both the
+ * blocking and the reactive client) and into request handling for whichever
+ * web stack the active profile runs.
+ */
+@Configuration
+public class SlowOperationConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowCommandListener(SlowOperationRecorder recorder) {
+        return settings -> settings.addCommandListener(new SlowCommandListener(recorder));
+    }
+
+    @Configuration
+    @Profile("!reactive")
+    static class Mvc implements WebMvcConfigurer {
+
+        @Autowired
+        private SlowOperationRecorder recorder;
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new SlowRequestInterceptor(recorder));
+        }
+    }
+
+    // Reactive handlers hop threads, so only the request itself is timed and attributed
+    @Bean
+    @Profile("reactive")
+    public WebFilter slowRequestWebFilter(SlowOperationRecorder recorder) {
+        return (exchange, chain) -> {
+            long started = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String path = pattern != null ? pattern.toString() : exchange.getRequest().getPath().value();
+                String handler = SlowRequestInterceptor.handlerName(
+                        exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE));
+                int status = exchange.getResponse().getStatusCode() != null
+                        ? exchange.getResponse().getStatusCode().value()
+                        : 200;
+                recorder.request(exchange.getRequest().getMethod().name() + " " + path, handler, status,
+                        System.nanoTime() - started);
+            });
+        };
+    }
+}
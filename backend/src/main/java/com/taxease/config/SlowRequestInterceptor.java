@@ -0,0 +1,63 @@
+package com.taxease.config;
+
+import com.taxease.service.SlowOperationRecorder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times MVC requests for the {@link SlowOperationRecorder} and marks the
+ * request thread with the controller method, so Mongo commands it issues are
+ * attributed to that handler. Async and streaming requests are timed from the
+ * first dispatch to the end of the last one.
+ */
+public class SlowRequestInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED = SlowRequestInterceptor.class.getName() + ".started";
+
+    private final SlowOperationRecorder recorder;
+
+    public SlowRequestInterceptor(SlowOperationRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (request.getAttribute(STARTED) == null) {
+            request.setAttribute(STARTED, System.nanoTime());
+        }
+        recorder.enterHandler(handlerName(handler));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                               @NonNull HttpServletResponse response, @NonNull Object handler) {
+        recorder.exitHandler();
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        recorder.exitHandler();
+        if (request.getAttribute(STARTED) instanceof Long started) {
+            // The route pattern keeps ids out of the name, so repeats of one endpoint group together
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String path = pattern != null ? pattern.toString() : request.getRequestURI();
+            recorder.request(request.getMethod() + " " + path, handlerName(handler), response.getStatus(),
+                    System.nanoTime() - started);
+        }
+    }
+
+    // ControllerClass.method, shared with the reactive filter
+    static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.taxease.config;
+
+import com.taxease.service.TaxPositionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Command-line entry point for rebuilding tax positions:
+ * {@code mvn spring-boot:run -Dspring-boot.run.arguments=--rebuild-tax-positions}
+ * runs the rebuild and exits (non-zero if any position failed).
+ */
+@Component
+public class TaxPositionRebuildRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TaxPositionRebuildRunner.class);
+
+    private static final String OPTION = "rebuild-tax-positions";
+
+    @Autowired
+    private TaxPositionService taxPositionService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        Map<String, Object> result = taxPositionService.rebuildAll();
+        log.info("Tax position rebuild finished: {}", result);
+        int failed = ((Number) result.get("failed")).intValue();
+        System.exit(SpringApplication.exit(context, () -> failed > 0 ? 1 : 0));
+    }
+}
@@ -2,13 +2,16 @@ package com.taxease.controller;
 
 import com.taxease.dto.AuthDTO;
 import com.taxease.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/auth")
 public class AuthController {
     
@@ -16,14 +19,16 @@ public class AuthController {
     private AuthService authService;
     
     @PostMapping("/signup")
-    public ResponseEntity<AuthDTO.AuthResponse> signup(@RequestBody AuthDTO.SignupRequest request) {
-        AuthDTO.AuthResponse response = authService.signup(request);
+    public ResponseEntity<AuthDTO.AuthResponse> signup(@RequestBody AuthDTO.SignupRequest request,
+                                                       HttpServletRequest http) {
+        AuthDTO.AuthResponse response = authService.signup(request, http.getRemoteAddr());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
     @PostMapping("/login")
-    public ResponseEntity<AuthDTO.AuthResponse> login(@RequestBody AuthDTO.LoginRequest request) {
-        AuthDTO.AuthResponse response = authService.login(request);
+    public ResponseEntity<AuthDTO.AuthResponse> login(@RequestBody AuthDTO.LoginRequest request,
+                                                      HttpServletRequest http) {
+        AuthDTO.AuthResponse response = authService.login(request, http.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
     
@@ -0,0 +1,49 @@
+package com.taxease.controller;
+
+import com.taxease.service.AccountExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/export")
+public class ExportController {
+
+    @Autowired
+    private AccountExportService accountExportService;
+
+    // GET /api/export/{userId}?format=ndjson|csv&section=&gzip= - everything the user owns, streamed from cursors
+    @GetMapping("/{userId}")
+    public ResponseEntity<StreamingResponseBody> exportAccount(
+            @PathVariable String userId,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String section,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        AccountExportService.Format type = AccountExportService.formatOf(format);
+        StreamingResponseBody body = accountExportService.export(userId, type, section, gzip);
+
+        String extension = type == AccountExportService.Format.CSV ? "csv" : "ndjson";
+        String filename = "taxease-export-" + userId.replaceAll("[^A-Za-z0-9_-]", "_")
+                + (section != null && !section.isBlank() ? "-" + section.replaceAll("[^A-Za-z0-9_-]", "_") : "")
+                + "." + extension + (gzip ? ".gz" : "");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(type == AccountExportService.Format.CSV ? "text/csv" : "application/x-ndjson"));
+        headers.setContentDispositionFormData("attachment", filename);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+}
@@ -0,0 +1,41 @@
+package com.taxease.controller;
+
+import com.taxease.service.BulkImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/import")
+public class ImportController {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    // POST /api/import/{income|investments}?format=csv|ndjson&importId=&userId=&batchSize=
+    // CSV or NDJSON rows in, NDJSON report out (rejected rows, checkpoints, summary).
+    // Re-posting the same file with the same importId resumes after the last checkpoint.
+    @PostMapping(value = "/{kind}", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importRecords(
+            @PathVariable String kind,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String importId,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) Integer batchSize,
+            @RequestHeader(value = "Content-Type", required = false) String contentType,
+            InputStream body) {
+        BulkImportService.ImportRequest request =
+                bulkImportService.request(kind, format, contentType, importId, userId, batchSize);
+        StreamingResponseBody stream = out -> bulkImportService.run(request, body, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header("X-Import-Id", request.importId())
+                .body(stream);
+    }
+}
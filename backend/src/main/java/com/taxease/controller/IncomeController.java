@@ -1,28 +1,44 @@
 package com.taxease.controller;
 
+import com.taxease.dto.PageDTO;
 import com.taxease.model.Income;
 import com.taxease.service.IncomeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/income")
 public class IncomeController {
     
     @Autowired
     private IncomeService incomeService;
     
+    // Streamed from a cursor as a JSON array, newest first
     @GetMapping("/{userId}")
-    public ResponseEntity<List<Income>> getIncome(
+    public ResponseEntity<StreamingResponseBody> getIncome(
             @PathVariable String userId,
             @RequestParam(required = false) String financialYear) {
-        List<Income> incomes = incomeService.getIncome(userId, financialYear);
-        return ResponseEntity.ok(incomes);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(incomeService.streamIncome(userId, financialYear));
+    }
+    
+    // GET /api/income/{userId}/page?cursor=&limit= - keyset pages, newest first
+    @GetMapping("/{userId}/page")
+    public ResponseEntity<PageDTO<Income>> getIncomePage(
+            @PathVariable String userId,
+            @RequestParam(required = false) String financialYear,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(incomeService.getIncomePage(userId, financialYear, cursor, limit));
     }
     
     @PostMapping
@@ -1,36 +1,65 @@
 package com.taxease.controller;
 
+import com.taxease.dto.InvestmentDTO;
+import com.taxease.dto.PageDTO;
 import com.taxease.model.Investment;
+import com.taxease.service.DataVersions;
 import com.taxease.service.InvestmentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/investments")
 public class InvestmentController {
     
     @Autowired
     private InvestmentService investmentService;
     
+    @Autowired
+    private DataVersions dataVersions;
+    
+    // Streamed from a cursor as a JSON array, newest first
     @GetMapping("/{userId}")
-    public ResponseEntity<List<Investment>> getInvestments(
+    public ResponseEntity<StreamingResponseBody> getInvestments(
             @PathVariable String userId,
             @RequestParam(required = false) String financialYear) {
-        List<Investment> investments = investmentService.getInvestments(userId, financialYear);
-        return ResponseEntity.ok(investments);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(investmentService.streamInvestments(userId, financialYear));
+    }
+    
+    // GET /api/investments/{userId}/page?cursor=&limit= - keyset pages, newest first
+    @GetMapping("/{userId}/page")
+    public ResponseEntity<PageDTO<Investment>> getInvestmentPage(
+            @PathVariable String userId,
+            @RequestParam(required = false) String financialYear,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(investmentService.getInvestmentPage(userId, financialYear, cursor, limit));
     }
     
+    // GET /api/investments/{userId}/summary?financialYear= - 304 skips the aggregation
     @GetMapping("/{userId}/summary")
-    public ResponseEntity<Map<String, Object>> getInvestmentSummary(
+    public ResponseEntity<InvestmentDTO.Summary> getInvestmentSummary(
             @PathVariable String userId,
-            @RequestParam(required = false) String financialYear) {
-        Map<String, Object> summary = investmentService.getInvestmentSummary(userId, financialYear);
-        return ResponseEntity.ok(summary);
+            @RequestParam(required = false) String financialYear,
+            WebRequest request) {
+        String etag = dataVersions.etag(userId, DataVersions.Scope.INVESTMENTS, "summary", financialYear);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        InvestmentDTO.Summary summary = investmentService.getInvestmentSummary(userId, financialYear);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(summary);
     }
     
     @PostMapping
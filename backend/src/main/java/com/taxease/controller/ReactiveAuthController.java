@@ -0,0 +1,47 @@
+package com.taxease.controller;
+
+import com.taxease.dto.AuthDTO;
+import com.taxease.service.ReactiveAuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/auth")
+public class ReactiveAuthController {
+
+    @Autowired
+    private ReactiveAuthService authService;
+
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<AuthDTO.AuthResponse>> signup(@RequestBody AuthDTO.SignupRequest request,
+                                                             ServerHttpRequest http) {
+        return authService.signup(request, clientIp(http))
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthDTO.AuthResponse>> login(@RequestBody AuthDTO.LoginRequest request,
+                                                            ServerHttpRequest http) {
+        return authService.login(request, clientIp(http)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/me")
+    public Mono<ResponseEntity<AuthDTO.UserDTO>> getMe(Authentication authentication) {
+        String userId = (String) authentication.getPrincipal();
+        return authService.getMe(userId).map(ResponseEntity::ok);
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+    }
+}
@@ -0,0 +1,60 @@
+package com.taxease.controller;
+
+import com.taxease.dto.PageDTO;
+import com.taxease.model.Income;
+import com.taxease.service.ReactiveIncomeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/income")
+public class ReactiveIncomeController {
+
+    @Autowired
+    private ReactiveIncomeService incomeService;
+
+    // Encoded as a JSON array while the cursor is read, newest first
+    @GetMapping("/{userId}")
+    public Flux<Income> getIncome(
+            @PathVariable String userId,
+            @RequestParam(required = false) String financialYear) {
+        return incomeService.getIncome(userId, financialYear);
+    }
+
+    // GET /api/income/{userId}/page?cursor=&limit= - keyset pages, newest first
+    @GetMapping("/{userId}/page")
+    public Mono<ResponseEntity<PageDTO<Income>>> getIncomePage(
+            @PathVariable String userId,
+            @RequestParam(required = false) String financialYear,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return incomeService.getIncomePage(userId, financialYear, cursor, limit).map(ResponseEntity::ok);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Income>> createIncome(@RequestBody Income income) {
+        return incomeService.createIncome(income)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Income>> updateIncome(
+            @PathVariable String id,
+            @RequestBody Income income) {
+        return incomeService.updateIncome(id, income).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Map<String, String>>> deleteIncome(@PathVariable String id) {
+        return incomeService.deleteIncome(id)
+                .thenReturn(ResponseEntity.ok(Map.of("message", "Income record deleted")));
+    }
+}
@@ -0,0 +1,81 @@
+package com.taxease.controller;
+
+import com.taxease.dto.InvestmentDTO;
+import com.taxease.dto.PageDTO;
+import com.taxease.model.Investment;
+import com.taxease.service.DataVersions;
+import com.taxease.service.ReactiveDataVersions;
+import com.taxease.service.ReactiveInvestmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/investments")
+public class ReactiveInvestmentController {
+
+    @Autowired
+    private ReactiveInvestmentService investmentService;
+
+    @Autowired
+    private ReactiveDataVersions dataVersions;
+
+    // Encoded as a JSON array while the cursor is read, newest first
+    @GetMapping("/{userId}")
+    public Flux<Investment> getInvestments(
+            @PathVariable String userId,
+            @RequestParam(required = false) String financialYear) {
+        return investmentService.getInvestments(userId, financialYear);
+    }
+
+    // GET /api/investments/{userId}/page?cursor=&limit= - keyset pages, newest first
+    @GetMapping("/{userId}/page")
+    public Mono<ResponseEntity<PageDTO<Investment>>> getInvestmentPage(
+            @PathVariable String userId,
+            @RequestParam(required = false) String financialYear,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return investmentService.getInvestmentPage(userId, financialYear, cursor, limit).map(ResponseEntity::ok);
+    }
+
+    // GET /api/investments/{userId}/summary?financialYear= - 304 skips the aggregation
+    @GetMapping("/{userId}/summary")
+    public Mono<ResponseEntity<InvestmentDTO.Summary>> getInvestmentSummary(
+            @PathVariable String userId,
+            @RequestParam(required = false) String financialYear,
+            ServerWebExchange exchange) {
+        return dataVersions.etag(userId, DataVersions.Scope.INVESTMENTS, "summary", financialYear)
+                .filter(etag -> !exchange.checkNotModified(etag))
+                .flatMap(etag -> investmentService.getInvestmentSummary(userId, financialYear)
+                        .map(summary -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                                .body(summary)));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Investment>> createInvestment(@RequestBody Investment investment) {
+        return investmentService.createInvestment(investment)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Investment>> updateInvestment(
+            @PathVariable String id,
+            @RequestBody Investment investment) {
+        return investmentService.updateInvestment(id, investment).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Map<String, String>>> deleteInvestment(@PathVariable String id) {
+        return investmentService.deleteInvestment(id)
+                .thenReturn(ResponseEntity.ok(Map.of("message", "Investment deleted")));
+    }
+}
@@ -0,0 +1,211 @@
+package com.taxease.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.taxease.dto.OptimizerDTO;
+import com.taxease.dto.PageDTO;
+import com.taxease.dto.TaxDTO;
+import com.taxease.model.TaxPosition;
+import com.taxease.model.TaxReport;
+import com.taxease.service.Blocking;
+import com.taxease.service.DataVersions;
+import com.taxease.service.PdfCache;
+import com.taxease.service.ReactiveDataVersions;
+import com.taxease.service.ReactiveTaxService;
+import com.taxease.service.ReportExportService;
+import com.taxease.service.ReportRenderService;
+import com.taxease.service.TaxBatchService;
+import com.taxease.service.TaxOptimizerService;
+import com.taxease.service.TaxPositionService;
+import com.taxease.service.TaxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Same routes as {@link TaxController}. Listings read through the reactive
+ * driver; calculation, report generation, rendering and the optimizer reuse
+ * the blocking services on the bounded elastic scheduler.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/tax")
+public class ReactiveTaxController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int PDF_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private TaxService taxService;
+
+    @Autowired
+    private ReactiveDataVersions dataVersions;
+
+    // Full rebuilds are an operator action; off unless explicitly enabled
+    @Value("${tax.positions.rebuild-endpoint.enabled:false}")
+    private boolean rebuildEndpointEnabled;
+
+    @Autowired
+    private ReactiveTaxService reactiveTaxService;
+
+    @Autowired
+    private TaxBatchService taxBatchService;
+
+    @Autowired
+    private TaxOptimizerService taxOptimizerService;
+
+    @Autowired
+    private ReportRenderService reportRenderService;
+
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private TaxPositionService taxPositionService;
+
+    @PostMapping("/calculate")
+    public ResponseEntity<TaxDTO.CalculateResult> calculateTax(@RequestBody TaxDTO.CalculateRequest request) {
+        return ResponseEntity.ok(taxService.calculateTax(request.income(), request.regime(),
+                request.deductions(), request.financialYear()));
+    }
+
+    // POST /api/tax/calculate/batch - NDJSON or JSON array in, NDJSON out, one row at a time
+    @PostMapping(value = "/calculate/batch", produces = "application/x-ndjson")
+    public ResponseEntity<Flux<Map<String, Object>>> calculateTaxBatch(@RequestBody Flux<JsonNode> rows) {
+        AtomicLong row = new AtomicLong();
+        Flux<Map<String, Object>> results = rows
+                .map(node -> taxBatchService.calculateRow(row.incrementAndGet(), node))
+                // Malformed input cannot be resynchronised; report it against the row being read and stop.
+                .onErrorResume(e -> Mono.just(taxBatchService.malformedRow(row.get() + 1, e)));
+        return ResponseEntity.ok().contentType(NDJSON).body(results);
+    }
+
+    // POST /api/tax/optimize - compare regimes and pick the best deduction plan
+    @PostMapping("/optimize")
+    public Mono<ResponseEntity<OptimizerDTO.OptimizeResult>> optimize(@RequestBody OptimizerDTO.OptimizeRequest request) {
+        return Blocking.call(() -> taxOptimizerService.optimize(request)).map(ResponseEntity::ok);
+    }
+
+    // GET /api/tax/position/{userId}?financialYear= - materialized dashboard totals
+    @GetMapping("/position/{userId}")
+    public Mono<ResponseEntity<TaxPosition>> getTaxPosition(@PathVariable String userId,
+                                                            @RequestParam String financialYear) {
+        return Blocking.call(() -> taxPositionService.getPosition(userId, financialYear)).map(ResponseEntity::ok);
+    }
+
+    // POST /api/tax/positions/rebuild - recompute every position from source data
+    @PostMapping("/positions/rebuild")
+    public Mono<ResponseEntity<Map<String, Object>>> rebuildTaxPositions() {
+        if (!rebuildEndpointEnabled) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND));
+        }
+        return Blocking.call(taxPositionService::rebuildAll).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/report")
+    public Mono<ResponseEntity<TaxReport>> generateTaxReport(@RequestBody Map<String, String> request) {
+        String userId = request.get("userId");
+        String financialYear = request.get("financialYear");
+        String regime = request.get("regime");
+
+        return Blocking.call(() -> taxService.generateTaxReport(userId, financialYear, regime))
+                .map(report -> ResponseEntity.status(HttpStatus.CREATED).body(report));
+    }
+
+    // Encoded as a JSON array while the cursor is read, newest first; 304 while no report was generated
+    @GetMapping("/reports/{userId}")
+    public Mono<ResponseEntity<Flux<TaxReport>>> getTaxReports(@PathVariable String userId,
+                                                               ServerWebExchange exchange) {
+        return dataVersions.etag(userId, DataVersions.Scope.REPORTS, "list")
+                .filter(etag -> !exchange.checkNotModified(etag))
+                .map(etag -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                        .body(reactiveTaxService.getTaxReports(userId)));
+    }
+
+    // GET /api/tax/reports/{userId}/page?cursor=&limit= - keyset pages, newest first
+    @GetMapping("/reports/{userId}/page")
+    public Mono<ResponseEntity<PageDTO<TaxReport>>> getTaxReportPage(@PathVariable String userId,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    ServerWebExchange exchange) {
+        return dataVersions.etag(userId, DataVersions.Scope.REPORTS, "page", cursor, limit)
+                .filter(etag -> !exchange.checkNotModified(etag))
+                .flatMap(etag -> reactiveTaxService.getTaxReportPage(userId, cursor, limit)
+                        .map(page -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                                .body(page)));
+    }
+
+    // GET /api/tax/reports/{userId}/zip - every report as one streamed ZIP
+    @GetMapping("/reports/{userId}/zip")
+    public ResponseEntity<Flux<DataBuffer>> exportTaxReports(@PathVariable String userId) {
+        Flux<DataBuffer> body = Blocking.stream(reportExportService.exportReports(userId));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "tax-reports.zip");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    // Rendered on the PDF worker pool; the cached file is streamed from its open channel
+    @GetMapping("/report/{reportId}/download")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> downloadTaxReport(@PathVariable String reportId) {
+        return Blocking.call(() -> reportRenderService.render(reportId))
+                .flatMap(Mono::fromFuture)
+                .map(this::pdfResponse);
+    }
+
+    // POST /api/tax/report/{reportId}/jobs - queue a render and poll for it
+    @PostMapping("/report/{reportId}/jobs")
+    public ResponseEntity<Map<String, Object>> submitRenderJob(@PathVariable String reportId) {
+        ReportRenderService.RenderJob job = reportRenderService.submit(reportId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/tax/report/jobs/" + job.getId()))
+                .body(TaxController.jobStatus(job));
+    }
+
+    @GetMapping("/report/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getRenderJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(TaxController.jobStatus(reportRenderService.getJob(jobId)));
+    }
+
+    // Renders again if the finished job's file was evicted since
+    @GetMapping("/report/jobs/{jobId}/download")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> downloadRenderJob(@PathVariable String jobId) {
+        return Blocking.call(() -> reportRenderService.getResult(jobId))
+                .flatMap(Mono::fromFuture)
+                .map(this::pdfResponse);
+    }
+
+    // Reads the already-open channel (closed on completion or cancel), so an eviction cannot cut it short
+    private ResponseEntity<Flux<DataBuffer>> pdfResponse(PdfCache.CachedPdf pdf) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "tax-report.pdf");
+        headers.setContentLength(pdf.size());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(DataBufferUtils.readByteChannel(pdf::channel, DefaultDataBufferFactory.sharedInstance,
+                        PDF_BUFFER_SIZE));
+    }
+}
@@ -0,0 +1,98 @@
+package com.taxease.controller;
+
+import com.taxease.dto.WalletDTO;
+import com.taxease.model.UserInvestment;
+import com.taxease.service.DataVersions;
+import com.taxease.service.ReactiveDataVersions;
+import com.taxease.service.ReactiveWalletService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Same routes and request bodies as WalletController
+@RestController
+@Profile("reactive")
+@RequestMapping("/wallet")
+public class ReactiveWalletController {
+
+    @Autowired
+    private ReactiveWalletService walletService;
+
+    @Autowired
+    private ReactiveDataVersions dataVersions;
+
+    // GET /api/wallet/{userId}?financialYear=... - 304 while the wallet is unchanged
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<UserInvestment>>> getWallet(@PathVariable String userId,
+                                                                @RequestParam String financialYear,
+                                                                ServerWebExchange exchange) {
+        return dataVersions.etag(userId, DataVersions.Scope.WALLET, "list", financialYear)
+                .filter(etag -> !exchange.checkNotModified(etag))
+                .map(etag -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                        .body(walletService.getWallet(userId, financialYear)));
+    }
+
+    // GET /api/wallet/{userId}/summary?financialYear=... - 304 skips the aggregation
+    @GetMapping("/{userId}/summary")
+    public Mono<ResponseEntity<WalletDTO.Summary>> getWalletSummary(@PathVariable String userId,
+                                                                    @RequestParam String financialYear,
+                                                                    ServerWebExchange exchange) {
+        return dataVersions.etag(userId, DataVersions.Scope.WALLET, "summary", financialYear)
+                .filter(etag -> !exchange.checkNotModified(etag))
+                .flatMap(etag -> walletService.getWalletSummary(userId, financialYear)
+                        .map(summary -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                                .body(summary)));
+    }
+
+    // POST /api/wallet/add
+    @PostMapping("/add")
+    public Mono<ResponseEntity<UserInvestment>> addInvestment(
+            @RequestBody WalletController.AddInvestmentRequest request) {
+        return walletService.addInvestment(
+                        request.getUserId(),
+                        request.getFinancialYear(),
+                        request.getSection(),
+                        request.getName(),
+                        request.getAmount())
+                .map(section -> ResponseEntity.status(HttpStatus.CREATED).body(section));
+    }
+
+    // PUT /api/wallet/{sectionId}/slot/{slotId}
+    @PutMapping("/{sectionId}/slot/{slotId}")
+    public Mono<ResponseEntity<UserInvestment>> updateInvestmentSlot(
+            @PathVariable String sectionId,
+            @PathVariable String slotId,
+            @RequestBody WalletController.UpdateSlotRequest request) {
+        return walletService.updateInvestmentSlot(sectionId, slotId, request.getName(), request.getAmount())
+                .map(ResponseEntity::ok);
+    }
+
+    // DELETE /api/wallet/{sectionId}/slot/{slotId}
+    @DeleteMapping("/{sectionId}/slot/{slotId}")
+    public Mono<ResponseEntity<WalletDTO.SlotDeleted>> deleteInvestmentSlot(@PathVariable String sectionId,
+                                                                            @PathVariable String slotId) {
+        return walletService.deleteInvestmentSlot(sectionId, slotId).map(ResponseEntity::ok);
+    }
+
+    // POST /api/wallet/initialize
+    @PostMapping("/initialize")
+    public Mono<ResponseEntity<Map<String, Object>>> initializeWallet(
+            @RequestBody WalletController.InitializeWalletRequest request) {
+        return walletService.initializeWallet(request.getUserId(), request.getFinancialYear(), request.getSections())
+                .map(created -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("message", "Wallet initialized");
+                    response.put("sections", created);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                });
+    }
+}
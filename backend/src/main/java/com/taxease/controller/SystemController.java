@@ -0,0 +1,72 @@
+package com.taxease.controller;
+
+import com.taxease.service.EntityCache;
+import com.taxease.service.SlowOperationRecorder;
+import com.taxease.service.TaxSlabEngine;
+import com.taxease.service.WorkerThreads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/system")
+public class SystemController {
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private SlowOperationRecorder slowOperationRecorder;
+
+    @Autowired
+    private TaxSlabEngine taxSlabEngine;
+
+    // GET /api/system/threads - platform, carrier and worker-pool thread counts
+    @GetMapping("/threads")
+    public ResponseEntity<Map<String, Object>> getThreads() {
+        return ResponseEntity.ok(workerThreads.stats());
+    }
+
+    // GET /api/system/caches - size, hits, misses and hit rate per cache
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Object>> getCaches() {
+        return ResponseEntity.ok(entityCache.stats());
+    }
+
+    // GET /api/system/slow-ops - slowest recent Mongo commands and requests over their thresholds
+    @GetMapping("/slow-ops")
+    public ResponseEntity<Map<String, Object>> getSlowOperations(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(slowOperationRecorder.stats(limit));
+    }
+
+    // DELETE /api/system/slow-ops - start a fresh capture
+    @DeleteMapping("/slow-ops")
+    public ResponseEntity<Map<String, Object>> clearSlowOperations() {
+        slowOperationRecorder.clear();
+        return ResponseEntity.ok(Map.of("message", "Slow operation buffers cleared"));
+    }
+
+    // POST /api/system/tax-slabs/reload - re-read tax.slabs.location; the old tables stay if the file is invalid
+    @PostMapping("/tax-slabs/reload")
+    public ResponseEntity<Map<String, Object>> reloadTaxSlabs() {
+        try {
+            taxSlabEngine.reload();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+        return ResponseEntity.ok(Map.of("message", "Tax slabs reloaded",
+                "defaultYear", taxSlabEngine.defaultYear()));
+    }
+}
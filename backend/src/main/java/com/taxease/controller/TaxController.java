@@ -1,35 +1,105 @@
 package com.taxease.controller;
 
+import com.taxease.dto.OptimizerDTO;
+import com.taxease.dto.PageDTO;
+import com.taxease.dto.TaxDTO;
+import com.taxease.model.TaxPosition;
 import com.taxease.model.TaxReport;
+import com.taxease.service.DataVersions;
+import com.taxease.service.PdfCache;
+import com.taxease.service.ReportExportService;
+import com.taxease.service.ReportRenderService;
+import com.taxease.service.TaxBatchService;
+import com.taxease.service.TaxOptimizerService;
+import com.taxease.service.TaxPositionService;
 import com.taxease.service.TaxService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/tax")
 public class TaxController {
     
     @Autowired
     private TaxService taxService;
     
+    @Autowired
+    private TaxBatchService taxBatchService;
+    
+    @Autowired
+    private TaxOptimizerService taxOptimizerService;
+    
+    @Autowired
+    private ReportRenderService reportRenderService;
+    
+    @Autowired
+    private ReportExportService reportExportService;
+    
+    @Autowired
+    private TaxPositionService taxPositionService;
+    
+    @Autowired
+    private DataVersions dataVersions;
+    
+    // Full rebuilds are an operator action; off unless explicitly enabled
+    @Value("${tax.positions.rebuild-endpoint.enabled:false}")
+    private boolean rebuildEndpointEnabled;
+    
     @PostMapping("/calculate")
-    public ResponseEntity<Map<String, Object>> calculateTax(@RequestBody Map<String, Object> request) {
-        Double income = ((Number) request.get("income")).doubleValue();
-        String regime = (String) request.get("regime");
-        Double deductions = request.get("deductions") != null ? 
-                ((Number) request.get("deductions")).doubleValue() : 0.0;
-        
-        Map<String, Object> result = taxService.calculateTax(income, regime, deductions);
+    public ResponseEntity<TaxDTO.CalculateResult> calculateTax(@RequestBody TaxDTO.CalculateRequest request) {
+        TaxDTO.CalculateResult result = taxService.calculateTax(request.income(), request.regime(),
+                request.deductions(), request.financialYear());
         return ResponseEntity.ok(result);
     }
     
+    // POST /api/tax/calculate/batch - NDJSON or JSON array in, NDJSON out
+    @PostMapping(value = "/calculate/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> calculateTaxBatch(InputStream body) {
+        StreamingResponseBody stream = out -> taxBatchService.calculateBatch(body, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(stream);
+    }
+    
+    // POST /api/tax/optimize - compare regimes and pick the best deduction plan
+    @PostMapping("/optimize")
+    public ResponseEntity<OptimizerDTO.OptimizeResult> optimize(@RequestBody OptimizerDTO.OptimizeRequest request) {
+        return ResponseEntity.ok(taxOptimizerService.optimize(request));
+    }
+    
+    // GET /api/tax/position/{userId}?financialYear= - materialized dashboard totals
+    @GetMapping("/position/{userId}")
+    public ResponseEntity<TaxPosition> getTaxPosition(@PathVariable String userId,
+                                                      @RequestParam String financialYear) {
+        return ResponseEntity.ok(taxPositionService.getPosition(userId, financialYear));
+    }
+    
+    // POST /api/tax/positions/rebuild - recompute every position from source data
+    @PostMapping("/positions/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildTaxPositions() {
+        if (!rebuildEndpointEnabled) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(taxPositionService.rebuildAll());
+    }
+    
     @PostMapping("/report")
     public ResponseEntity<TaxReport> generateTaxReport(@RequestBody Map<String, String> request) {
         String userId = request.get("userId");
@@ -40,22 +110,103 @@ public class TaxController {
         return ResponseEntity.status(HttpStatus.CREATED).body(report);
     }
     
+    // Streamed from a cursor as a JSON array, newest first; 304 while no report was generated
     @GetMapping("/reports/{userId}")
-    public ResponseEntity<List<TaxReport>> getTaxReports(@PathVariable String userId) {
-        List<TaxReport> reports = taxService.getTaxReports(userId);
-        return ResponseEntity.ok(reports);
+    public ResponseEntity<StreamingResponseBody> getTaxReports(@PathVariable String userId, WebRequest request) {
+        String etag = dataVersions.etag(userId, DataVersions.Scope.REPORTS, "list");
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(taxService.streamTaxReports(userId));
     }
     
-    @GetMapping("/report/{reportId}/download")
-    public ResponseEntity<byte[]> downloadTaxReport(@PathVariable String reportId) {
-        byte[] pdfBytes = taxService.downloadTaxReport(reportId);
+    // GET /api/tax/reports/{userId}/page?cursor=&limit= - keyset pages, newest first
+    @GetMapping("/reports/{userId}/page")
+    public ResponseEntity<PageDTO<TaxReport>> getTaxReportPage(@PathVariable String userId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              WebRequest request) {
+        String etag = dataVersions.etag(userId, DataVersions.Scope.REPORTS, "page", cursor, limit);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(taxService.getTaxReportPage(userId, cursor, limit, etag));
+    }
+    
+    // GET /api/tax/reports/{userId}/zip - every report as one streamed ZIP
+    @GetMapping("/reports/{userId}/zip")
+    public ResponseEntity<StreamingResponseBody> exportTaxReports(@PathVariable String userId) {
+        StreamingResponseBody body = reportExportService.exportReports(userId);
         
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "tax-reports.zip");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+    
+    // Rendered on the PDF worker pool; the request thread is released meanwhile
+    @GetMapping("/report/{reportId}/download")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> downloadTaxReport(@PathVariable String reportId) {
+        return reportRenderService.render(reportId).thenApply(this::pdfResponse);
+    }
+    
+    // POST /api/tax/report/{reportId}/jobs - queue a render and poll for it
+    @PostMapping("/report/{reportId}/jobs")
+    public ResponseEntity<Map<String, Object>> submitRenderJob(@PathVariable String reportId) {
+        ReportRenderService.RenderJob job = reportRenderService.submit(reportId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/tax/report/jobs/" + job.getId()))
+                .body(jobStatus(job));
+    }
+    
+    @GetMapping("/report/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getRenderJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(jobStatus(reportRenderService.getJob(jobId)));
+    }
+    
+    // Renders again if the finished job's file was evicted since
+    @GetMapping("/report/jobs/{jobId}/download")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> downloadRenderJob(@PathVariable String jobId) {
+        return reportRenderService.getResult(jobId).thenApply(this::pdfResponse);
+    }
+    
+    // The file is already open, so an eviction during the download cannot cut it short
+    private ResponseEntity<StreamingResponseBody> pdfResponse(PdfCache.CachedPdf pdf) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDispositionFormData("attachment", "tax-report.pdf");
+        headers.setContentLength(pdf.size());
         
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfBytes);
+                .body(pdf::writeTo);
+    }
+    
+    static Map<String, Object> jobStatus(ReportRenderService.RenderJob job) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("jobId", job.getId());
+        status.put("reportId", job.getReportId());
+        status.put("status", job.getStatus());
+        status.put("submittedAt", job.getSubmittedAt());
+        if (job.getCompletedAt() != null) {
+            status.put("completedAt", job.getCompletedAt());
+        }
+        if (job.getError() != null) {
+            status.put("error", job.getError());
+        }
+        if (job.getStatus() == ReportRenderService.JobStatus.COMPLETED) {
+            status.put("downloadUrl", "/api/tax/report/jobs/" + job.getId() + "/download");
+        }
+        return status;
     }
 }
@@ -1,38 +1,57 @@
 package com.taxease.controller;
 
+import com.taxease.dto.WalletDTO;
 import com.taxease.model.UserInvestment;
+import com.taxease.service.DataVersions;
 import com.taxease.service.WalletService;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/wallet")
 public class WalletController {
 
     @Autowired
     private WalletService walletService;
 
-    // GET /api/wallet/{userId}?financialYear=...
+    @Autowired
+    private DataVersions dataVersions;
+
+    // GET /api/wallet/{userId}?financialYear=... - 304 while the wallet is unchanged
     @GetMapping("/{userId}")
     public ResponseEntity<List<UserInvestment>> getWallet(@PathVariable String userId,
-                                                          @RequestParam String financialYear) {
+                                                          @RequestParam String financialYear,
+                                                          WebRequest request) {
+        String etag = dataVersions.etag(userId, DataVersions.Scope.WALLET, "list", financialYear);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<UserInvestment> wallet = walletService.getWallet(userId, financialYear);
-        return ResponseEntity.ok(wallet);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(wallet);
     }
 
-    // GET /api/wallet/{userId}/summary?financialYear=...
+    // GET /api/wallet/{userId}/summary?financialYear=... - 304 skips the aggregation
     @GetMapping("/{userId}/summary")
-    public ResponseEntity<Map<String, Object>> getWalletSummary(@PathVariable String userId,
-                                                                @RequestParam String financialYear) {
-        Map<String, Object> summary = walletService.getWalletSummary(userId, financialYear);
-        return ResponseEntity.ok(summary);
+    public ResponseEntity<WalletDTO.Summary> getWalletSummary(@PathVariable String userId,
+                                                                @RequestParam String financialYear,
+                                                                WebRequest request) {
+        String etag = dataVersions.etag(userId, DataVersions.Scope.WALLET, "summary", financialYear);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        WalletDTO.Summary summary = walletService.getWalletSummary(userId, financialYear);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(summary);
     }
 
     // POST /api/wallet/add
@@ -64,9 +83,9 @@ public class WalletController {
 
     // DELETE /api/wallet/{sectionId}/slot/{slotId}
     @DeleteMapping("/{sectionId}/slot/{slotId}")
-    public ResponseEntity<Map<String, Object>> deleteInvestmentSlot(@PathVariable String sectionId,
-                                                                    @PathVariable String slotId) {
-        Map<String, Object> response = walletService.deleteInvestmentSlot(sectionId, slotId);
+    public ResponseEntity<WalletDTO.SlotDeleted> deleteInvestmentSlot(@PathVariable String sectionId,
+                                                                      @PathVariable String slotId) {
+        WalletDTO.SlotDeleted response = walletService.deleteInvestmentSlot(sectionId, slotId);
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,13 @@
+package com.taxease.dto;
+
+import com.taxease.model.Investment;
+
+import java.util.Map;
+
+public class InvestmentDTO {
+
+    // byType only lists the types the user holds
+    public record Summary(double totalInvested, double section80C, double section80CCD, double section80D,
+                          Map<Investment.InvestmentType, Double> byType) {
+    }
+}
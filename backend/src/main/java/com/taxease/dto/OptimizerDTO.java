@@ -0,0 +1,48 @@
+package com.taxease.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OptimizerDTO {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OptimizeRequest {
+        private String userId;
+        private String financialYear;
+        private Double income;
+        private Double budget;
+        private List<Candidate> candidates = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Candidate {
+        private String name;
+        private String section;
+        private Double amount;
+        // Divisible candidates (PPF, NPS top-ups...) may be funded partially
+        private boolean divisible;
+    }
+
+    public record PlanItem(String name, String section, double amount, double deduction) {
+    }
+
+    public record RegimeResult(double deductions, double taxableIncome, double taxAmount) {
+    }
+
+    // exhaustive is false when the search hit its node ceiling and returned the best plan found so far
+    public record OptimizeResult(String financialYear, double income, double budget, double existingDeductions,
+                                 @JsonProperty("old") RegimeResult oldRegime,
+                                 @JsonProperty("new") RegimeResult newRegime,
+                                 String recommendedRegime, List<PlanItem> plan, double planSpend,
+                                 double taxSaved, boolean exhaustive) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.taxease.dto;
+
+/**
+ * Typed bodies of {@code POST /api/tax/calculate}. The result holds primitive
+ * doubles, so building it boxes nothing and Jackson writes the components in
+ * declaration order.
+ */
+public class TaxDTO {
+
+    public record CalculateRequest(Double income, String regime, Double deductions, String financialYear) {
+    }
+
+    public record CalculateResult(double income, double deductions, double taxableIncome, double taxAmount,
+                                  String regime, double netIncome) {
+    }
+}
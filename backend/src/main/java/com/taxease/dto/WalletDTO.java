@@ -0,0 +1,38 @@
+package com.taxease.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.taxease.model.UserInvestment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class WalletDTO {
+
+    public record SectionSummary(String section, double invested, double limit, double remaining,
+                                 double progress) {
+    }
+
+    // Sections in enum order
+    public record Summary(double totalInvested, double totalLimit, double totalRemaining,
+                          List<SectionSummary> bySections) {
+    }
+
+    public record SectionView(@JsonProperty("_id") String id, String section, double limit, double invested,
+                              double remaining, double progress, List<UserInvestment.InvestmentSlot> slots,
+                              LocalDateTime lastUpdated) {
+
+        public static SectionView of(UserInvestment section) {
+            return new SectionView(section.getId(), section.getSection().getValue(),
+                    section.getLimit() != null ? section.getLimit() : 0.0,
+                    section.getInvested() != null ? section.getInvested() : 0.0,
+                    section.getRemainingLimit(), section.getProgressPercentage(),
+                    section.getSlots(), section.getLastUpdated());
+        }
+    }
+
+    // section is left out when the last slot went and the section was removed
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SlotDeleted(String message, SectionView section) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.taxease.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Per-user change counters, one per cached view. The id is the user id; the
+ * epoch is set when the document is created, so counters that restart after
+ * a delete never repeat an earlier ETag.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "data_versions")
+public class DataVersion {
+
+    @Id
+    private String id;
+
+    private Long epoch;
+
+    private Long wallet = 0L;
+
+    private Long investments = 0L;
+
+    private Long reports = 0L;
+}
@@ -0,0 +1,42 @@
+package com.taxease.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one bulk import, saved after every committed batch. Re-running
+ * an import with the same id skips the rows up to {@code committedRows}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "import_checkpoints")
+public class ImportCheckpoint {
+
+    @Id
+    private String id;
+
+    // "income" or "investments"
+    private String kind;
+
+    // Source rows fully written (inserted or rejected), counted from the start of the file
+    private Long committedRows = 0L;
+
+    private Long inserted = 0L;
+
+    private Long failed = 0L;
+
+    private Boolean completed = false;
+
+    // Seeds the record ids, so a replayed row gets the same id and is recognised as already imported
+    private Long seedEpochSeconds;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+}
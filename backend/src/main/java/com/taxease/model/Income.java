@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -14,6 +15,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "incomes")
+@CompoundIndex(name = "userId_1_createdAt_-1__id_-1", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "userId_1_financialYear_1_createdAt_-1__id_-1",
+        def = "{'userId': 1, 'financialYear': 1, 'createdAt': -1, '_id': -1}")
 public class Income {
     
     @Id
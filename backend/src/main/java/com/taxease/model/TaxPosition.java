@@ -0,0 +1,67 @@
+package com.taxease.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Materialized tax position for one user and financial year, kept current by
+ * the services that mutate income, investments and the wallet. The id is
+ * {@code userId:financialYear}, so a dashboard read is a single _id lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "tax_positions")
+public class TaxPosition {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String financialYear;
+
+    private Double totalIncome = 0.0;
+
+    // Raw sums as written by the source services
+    private Map<Investment.TaxSection, Double> investments = new HashMap<>();
+
+    private Map<UserInvestment.Section, Double> wallet = new HashMap<>();
+
+    // Investments + wallet per section, capped at the section limit
+    private Map<UserInvestment.Section, Double> deductions = new HashMap<>();
+
+    private Double totalDeductions = 0.0;
+
+    private RegimeTax oldRegime;
+
+    private RegimeTax newRegime;
+
+    private String recommendedRegime;
+
+    private Long reportCount = 0L;
+
+    // Bumped on every change; derived fields are only written for the latest version
+    private Long version = 0L;
+
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String userId, String financialYear) {
+        return userId + ":" + financialYear;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RegimeTax {
+        private Double taxableIncome;
+        private Double taxAmount;
+    }
+}
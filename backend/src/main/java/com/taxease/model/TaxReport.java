@@ -1,14 +1,18 @@
 package com.taxease.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +21,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "taxreports")
+@CompoundIndex(name = "userId_1_createdAt_-1__id_-1", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "userId_1_financialYear_1", def = "{'userId': 1, 'financialYear': 1}")
 public class TaxReport {
     
     @Id
@@ -38,8 +44,15 @@ public class TaxReport {
     
     private TaxBreakdown taxBreakdown;
     
+    // Immutable copy of the investments the report was computed from
+    @Field("investmentSnapshot")
+    private List<InvestmentSnapshot> investments = new ArrayList<>();
+    
+    // Reports written before snapshots held DBRefs here; ReportSnapshotMigration clears them
     @DBRef
-    private List<Investment> investments = new ArrayList<>();
+    @JsonIgnore
+    @Field("investments")
+    private List<Investment> legacyInvestments;
     
     @CreatedDate
     private LocalDateTime createdAt;
@@ -47,6 +60,41 @@ public class TaxReport {
     @LastModifiedDate
     private LocalDateTime updatedAt;
     
+    public List<InvestmentSnapshot> getInvestments() {
+        if ((investments == null || investments.isEmpty()) && legacyInvestments != null) {
+            return InvestmentSnapshot.of(legacyInvestments);
+        }
+        return investments;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InvestmentSnapshot {
+        private String investmentId;
+        private Investment.InvestmentType type;
+        private Investment.TaxSection section;
+        private Double amount;
+        private String description;
+        private LocalDate dateInvested;
+        
+        public static InvestmentSnapshot of(Investment investment) {
+            return new InvestmentSnapshot(investment.getId(), investment.getType(), investment.getSection(),
+                    investment.getAmount(), investment.getDescription(), investment.getDateInvested());
+        }
+        
+        public static List<InvestmentSnapshot> of(List<Investment> investments) {
+            List<InvestmentSnapshot> snapshots = new ArrayList<>(investments.size());
+            for (Investment investment : investments) {
+                // Dangling references resolve to null
+                if (investment != null) {
+                    snapshots.add(of(investment));
+                }
+            }
+            return snapshots;
+        }
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,13 @@
+package com.taxease.repository;
+
+import com.taxease.model.Income;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking twin of IncomeRepository, used by the "reactive" profile
+@Repository
+public interface ReactiveIncomeRepository extends ReactiveMongoRepository<Income, String> {
+    Flux<Income> findByUserId(String userId);
+    Flux<Income> findByUserIdAndFinancialYear(String userId, String financialYear);
+}
@@ -0,0 +1,13 @@
+package com.taxease.repository;
+
+import com.taxease.model.Investment;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking twin of InvestmentRepository, used by the "reactive" profile
+@Repository
+public interface ReactiveInvestmentRepository extends ReactiveMongoRepository<Investment, String> {
+    Flux<Investment> findByUserId(String userId);
+    Flux<Investment> findByUserIdAndFinancialYear(String userId, String financialYear);
+}
@@ -0,0 +1,12 @@
+package com.taxease.repository;
+
+import com.taxease.model.TaxReport;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking twin of TaxReportRepository, used by the "reactive" profile
+@Repository
+public interface ReactiveTaxReportRepository extends ReactiveMongoRepository<TaxReport, String> {
+    Flux<TaxReport> findByUserIdOrderByCreatedAtDesc(String userId);
+}
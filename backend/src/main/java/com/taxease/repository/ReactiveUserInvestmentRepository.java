@@ -0,0 +1,19 @@
+package com.taxease.repository;
+
+import com.taxease.model.UserInvestment;
+import com.taxease.model.UserInvestment.Section;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking twin of UserInvestmentRepository, used by the "reactive" profile
+@Repository
+public interface ReactiveUserInvestmentRepository extends ReactiveMongoRepository<UserInvestment, String> {
+
+    Flux<UserInvestment> findByUserIdAndFinancialYearOrderBySectionAsc(String userId, String financialYear);
+
+    Mono<UserInvestment> findByUserIdAndFinancialYearAndSection(String userId,
+                                                                 String financialYear,
+                                                                 Section section);
+}
@@ -0,0 +1,13 @@
+package com.taxease.repository;
+
+import com.taxease.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+// Non-blocking twin of UserRepository, used by the "reactive" profile
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    Mono<User> findByEmail(String email);
+    Mono<Boolean> existsByEmail(String email);
+}
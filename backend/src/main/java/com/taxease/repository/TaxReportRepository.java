@@ -5,9 +5,12 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaxReportRepository extends MongoRepository<TaxReport, String> {
     List<TaxReport> findByUserId(String userId);
     List<TaxReport> findByUserIdOrderByCreatedAtDesc(String userId);
+    // Cursor-backed; callers must close the stream
+    Stream<TaxReport> streamByUserIdOrderByCreatedAtDesc(String userId);
 }
@@ -0,0 +1,280 @@
+package com.taxease.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.taxease.model.Income;
+import com.taxease.model.Investment;
+import com.taxease.model.TaxReport;
+import com.taxease.model.User;
+import com.taxease.model.UserInvestment;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams everything a user owns: profile, incomes, investments, wallet
+ * sections with their slots, and tax reports. Each collection is read through
+ * a server-side cursor and written row by row, as NDJSON (every section, one
+ * {@code {"type": ..., "data": ...}} line per document) or as CSV (one section
+ * per export, since the column sets differ). Memory use is the same for any
+ * account size.
+ */
+@Service
+public class AccountExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    /**
+     * One exportable collection: how to query it for a user, and its CSV
+     * columns with one or more rows per document (wallet slots fan out).
+     */
+    private record Section<T>(String name, Class<T> type, Sort order, List<String> columns,
+                              Function<T, List<Object[]>> csvRows) {
+
+        Query query(String userId) {
+            return Query.query(Criteria.where("userId").is(userId)).with(order);
+        }
+    }
+
+    private static final int FLUSH_EVERY = 200;
+    private static final int CURSOR_BATCH_SIZE = 500;
+
+    // Same (userId, createdAt, _id) order the listing indexes serve
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    private static final List<Section<?>> SECTIONS = List.of(
+            new Section<>("income", Income.class, NEWEST_FIRST,
+                    List.of("id", "financialYear", "salary", "businessIncome", "capitalGains", "otherIncome",
+                            "totalIncome", "createdAt", "updatedAt"),
+                    income -> single(income.getId(), income.getFinancialYear(), income.getSalary(),
+                            income.getBusinessIncome(), income.getCapitalGains(), income.getOtherIncome(),
+                            income.getTotalIncome(), income.getCreatedAt(), income.getUpdatedAt())),
+            new Section<>("investments", Investment.class, NEWEST_FIRST,
+                    List.of("id", "financialYear", "type", "amount", "section", "returns", "description",
+                            "dateInvested", "createdAt", "updatedAt"),
+                    investment -> single(investment.getId(), investment.getFinancialYear(), investment.getType(),
+                            investment.getAmount(),
+                            investment.getSection() != null ? investment.getSection().getValue() : null,
+                            investment.getReturns(), investment.getDescription(), investment.getDateInvested(),
+                            investment.getCreatedAt(), investment.getUpdatedAt())),
+            new Section<>("wallet", UserInvestment.class, Sort.by("financialYear", "section"),
+                    List.of("id", "financialYear", "section", "limit", "invested", "slotId", "slotName",
+                            "slotAmount", "slotDateAdded"),
+                    AccountExportService::walletRows),
+            new Section<>("reports", TaxReport.class, NEWEST_FIRST,
+                    List.of("id", "financialYear", "regime", "totalIncome", "totalDeductions", "taxableIncome",
+                            "taxAmount", "investmentCount", "createdAt", "updatedAt"),
+                    report -> single(report.getId(), report.getFinancialYear(), report.getRegime(),
+                            report.getTotalIncome(), report.getTotalDeductions(), report.getTaxableIncome(),
+                            report.getTaxAmount(),
+                            report.getInvestments() != null ? report.getInvestments().size() : 0,
+                            report.getCreatedAt(), report.getUpdatedAt())));
+
+    private static final CsvMapper CSV = new CsvMapper();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${export.account.max-concurrent:4}")
+    private int maxConcurrentExports;
+
+    private Semaphore exportPermits;
+
+    @PostConstruct
+    public void init() {
+        exportPermits = new Semaphore(maxConcurrentExports);
+    }
+
+    public static Format formatOf(String format) {
+        if (format == null || format.isBlank()) {
+            return Format.NDJSON;
+        }
+        try {
+            return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Export format must be ndjson or csv");
+        }
+    }
+
+    /**
+     * Checks the request up front; the export slot is taken when the body
+     * starts running, before any bytes are written, so errors and 429s still
+     * get a proper status and a body that never runs holds no slot.
+     */
+    public StreamingResponseBody export(String userId, Format format, String section, boolean gzip) {
+        List<Section<?>> sections = select(format, section);
+        User user = entityCache.findUser(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return out -> {
+            if (!exportPermits.tryAcquire()) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many account exports in progress, please retry shortly");
+            }
+            try {
+                OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+                if (format == Format.CSV) {
+                    writeCsv(userId, sections.get(0), target);
+                } else {
+                    writeNdjson(user, sections, target);
+                }
+                if (target instanceof GZIPOutputStream compressed) {
+                    compressed.finish();
+                }
+            } finally {
+                exportPermits.release();
+            }
+        };
+    }
+
+    private static List<Section<?>> select(Format format, String section) {
+        if (section == null || section.isBlank()) {
+            if (format == Format.CSV) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "CSV exports one section at a time: income, investments, wallet or reports");
+            }
+            return SECTIONS;
+        }
+        List<Section<?>> selected = new ArrayList<>();
+        for (String name : section.split(",")) {
+            Section<?> match = SECTIONS.stream()
+                    .filter(candidate -> candidate.name().equalsIgnoreCase(name.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Unknown export section: " + name.trim()));
+            selected.add(match);
+        }
+        if (format == Format.CSV && selected.size() > 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV exports one section at a time");
+        }
+        return selected;
+    }
+
+    private void writeNdjson(User user, List<Section<?>> sections, OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(null);
+
+            writeLine(gen, "user", objectMapper.writer(), AuthService.toUserDTO(user));
+            for (Section<?> section : sections) {
+                writeSection(gen, user.getId(), section);
+            }
+        }
+    }
+
+    private <T> void writeSection(JsonGenerator gen, String userId, Section<T> section) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(section.type())
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long written = 0;
+        try (Stream<T> documents = mongoTemplate.stream(
+                section.query(userId).cursorBatchSize(CURSOR_BATCH_SIZE), section.type())) {
+            Iterator<T> it = documents.iterator();
+            while (it.hasNext()) {
+                writeLine(gen, section.name(), writer, it.next());
+                if (++written % FLUSH_EVERY == 0) {
+                    gen.flush();
+                }
+            }
+        }
+    }
+
+    private static void writeLine(JsonGenerator gen, String type, ObjectWriter writer, Object data)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", type);
+        gen.writeFieldName("data");
+        writer.writeValue(gen, data);
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    private <T> void writeCsv(String userId, Section<T> section, OutputStream out) throws IOException {
+        CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+        section.columns().forEach(schema::addColumn);
+        try (Stream<T> documents = mongoTemplate.stream(
+                section.query(userId).cursorBatchSize(CURSOR_BATCH_SIZE), section.type());
+             SequenceWriter rows = CSV.writer(schema.build())
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .writeValues(out)) {
+            long written = 0;
+            Iterator<T> it = documents.iterator();
+            while (it.hasNext()) {
+                for (Object[] row : section.csvRows().apply(it.next())) {
+                    rows.write(row);
+                    if (++written % FLUSH_EVERY == 0) {
+                        rows.flush();
+                    }
+                }
+            }
+        }
+    }
+
+    // One row per slot; a section without slots still gets a row
+    private static List<Object[]> walletRows(UserInvestment wallet) {
+        Object[] base = {wallet.getId(), wallet.getFinancialYear(),
+                wallet.getSection() != null ? wallet.getSection().getValue() : null,
+                wallet.getLimit(), wallet.getInvested()};
+        List<Object[]> rows = new ArrayList<>();
+        if (wallet.getSlots() == null || wallet.getSlots().isEmpty()) {
+            rows.add(cells(Arrays.copyOf(base, base.length + 4)));
+            return rows;
+        }
+        for (UserInvestment.InvestmentSlot slot : wallet.getSlots()) {
+            Object[] row = Arrays.copyOf(base, base.length + 4);
+            row[base.length] = slot.getId();
+            row[base.length + 1] = slot.getName();
+            row[base.length + 2] = slot.getAmount();
+            row[base.length + 3] = slot.getDateAdded();
+            rows.add(cells(row));
+        }
+        return rows;
+    }
+
+    private static List<Object[]> single(Object... values) {
+        return List.<Object[]>of(cells(values));
+    }
+
+    // Dates and enums are written as their ISO / display text, nulls as empty cells
+    private static Object[] cells(Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                // Jackson's CSV writer drops null array elements, which would shift the columns
+                values[i] = "";
+            } else if (!(value instanceof Number) && !(value instanceof String)) {
+                values[i] = value.toString();
+            }
+        }
+        return values;
+    }
+}
@@ -4,84 +4,122 @@ import com.taxease.dto.AuthDTO;
 import com.taxease.model.User;
 import com.taxease.repository.UserRepository;
 import com.taxease.security.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class AuthService {
     
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
+    @Autowired
+    private AuthThrottle authThrottle;
     
     @Autowired
     private JwtUtil jwtUtil;
     
-    public AuthDTO.AuthResponse signup(AuthDTO.SignupRequest request) {
-        // Check if user exists
-        if (userRepository.existsByEmail(request.getEmail().toLowerCase())) {
-            throw new RuntimeException("User already exists with this email");
+    @Autowired
+    private EntityCache entityCache;
+    
+    public AuthDTO.AuthResponse signup(AuthDTO.SignupRequest request, String clientIp) {
+        AuthThrottle.Permit permit = authThrottle.acquire(clientIp, request.getEmail());
+        try {
+            return createUser(request);
+        } finally {
+            permit.close();
         }
-        
+    }
+    
+    private AuthDTO.AuthResponse createUser(AuthDTO.SignupRequest request) {
         // Create new user
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail().toLowerCase());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHasher.hash(request.getPassword()));
         user.setTaxRegime(User.TaxRegime.NEW);
         
-        user = userRepository.save(user);
+        // The unique email index rejects duplicates, so no existence check is needed first
+        try {
+            user = userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("User already exists with this email");
+        }
+        entityCache.evictUser(user.getId());
         
         // Generate JWT
         String token = jwtUtil.generateToken(user.getId());
         
-        // Build response
-        AuthDTO.UserDTO userDTO = new AuthDTO.UserDTO(
-                user.getId(),
-                user.getName(),
-                user.getEmail(),
-                user.getTaxRegime().getValue(),
-                user.getPan(),
-                user.getPhoneNumber()
-        );
-        
-        return new AuthDTO.AuthResponse(true, token, userDTO);
+        return new AuthDTO.AuthResponse(true, token, toUserDTO(user));
+    }
+    
+    public AuthDTO.AuthResponse login(AuthDTO.LoginRequest request, String clientIp) {
+        AuthThrottle.Permit permit = authThrottle.acquire(clientIp, request.getEmail());
+        try {
+            return authenticate(request);
+        } finally {
+            permit.close();
+        }
     }
     
-    public AuthDTO.AuthResponse login(AuthDTO.LoginRequest request) {
+    private AuthDTO.AuthResponse authenticate(AuthDTO.LoginRequest request) {
         // Find user
         User user = userRepository.findByEmail(request.getEmail().toLowerCase())
                 .orElseThrow(() -> new RuntimeException("Invalid email or password"));
         
         // Validate password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
             throw new RuntimeException("Invalid email or password");
         }
+        if (passwordHasher.needsRehash(user.getPasswordHash())) {
+            rehash(user, request.getPassword());
+        }
         
         // Generate JWT
         String token = jwtUtil.generateToken(user.getId());
         
-        // Build response
-        AuthDTO.UserDTO userDTO = new AuthDTO.UserDTO(
-                user.getId(),
-                user.getName(),
-                user.getEmail(),
-                user.getTaxRegime().getValue(),
-                user.getPan(),
-                user.getPhoneNumber()
-        );
-        
-        return new AuthDTO.AuthResponse(true, token, userDTO);
+        return new AuthDTO.AuthResponse(true, token, toUserDTO(user));
     }
     
     @SuppressWarnings("null")
     public AuthDTO.UserDTO getMe(String userId) {
-        User user = userRepository.findById(userId)
+        User user = entityCache.findUser(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
+        return toUserDTO(user);
+    }
+    
+    // The plain password is only available at login, so hashes move to the configured cost then
+    private void rehash(User user, String rawPassword) {
+        try {
+            String upgraded = passwordHasher.hash(rawPassword);
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(user.getId()).and("passwordHash").is(user.getPasswordHash())),
+                    Update.update("passwordHash", upgraded), User.class);
+            entityCache.evictUser(user.getId());
+        } catch (ResponseStatusException e) {
+            // Pool is busy; the next login tries again
+            log.debug("Skipped password rehash for {}: {}", user.getId(), e.getReason());
+        }
+    }
+    
+    static AuthDTO.UserDTO toUserDTO(User user) {
         return new AuthDTO.UserDTO(
                 user.getId(),
                 user.getName(),
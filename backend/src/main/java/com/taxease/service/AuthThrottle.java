@@ -0,0 +1,81 @@
+package com.taxease.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrent login/signup attempts per client IP and per email, so one
+ * source cannot occupy the whole BCrypt pool. Counters exist only while an
+ * attempt is in flight.
+ */
+@Component
+public class AuthThrottle {
+
+    @Value("${auth.limits.per-ip:8}")
+    private int perIp;
+
+    @Value("${auth.limits.per-email:2}")
+    private int perEmail;
+
+    private final ConcurrentHashMap<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    /** Released by {@link Permit#close()}; closing twice is harmless. */
+    public final class Permit implements AutoCloseable {
+        private final String ipKey;
+        private final String emailKey;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(String ipKey, String emailKey) {
+            this.ipKey = ipKey;
+            this.emailKey = emailKey;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(ipKey);
+                release(emailKey);
+            }
+        }
+    }
+
+    public Permit acquire(String clientIp, String email) {
+        String ipKey = "ip:" + clientIp;
+        String emailKey = "email:" + (email != null ? email.toLowerCase() : "");
+        if (!tryAcquire(ipKey, perIp)) {
+            throw tooMany();
+        }
+        if (!tryAcquire(emailKey, perEmail)) {
+            release(ipKey);
+            throw tooMany();
+        }
+        return new Permit(ipKey, emailKey);
+    }
+
+    private boolean tryAcquire(String key, int limit) {
+        boolean[] acquired = {false};
+        inFlight.compute(key, (k, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= limit) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void release(String key) {
+        inFlight.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static ResponseStatusException tooMany() {
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "Too many sign-in attempts in progress, please retry shortly");
+    }
+}
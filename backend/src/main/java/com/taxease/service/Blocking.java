@@ -0,0 +1,44 @@
+package com.taxease.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Bridges the blocking services into the reactive profile. Work that has no
+ * non-blocking equivalent (multi-step wallet writes, PDF rendering, the
+ * optimizer, position maintenance, BCrypt) runs on the bounded elastic
+ * scheduler so it never holds an event-loop thread.
+ */
+public final class Blocking {
+
+    private Blocking() {
+    }
+
+    public static <T> Mono<T> call(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public static Mono<Void> run(Runnable work) {
+        return Mono.fromRunnable(work).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    // Output written by the body is handed downstream as buffers, with backpressure
+    public static Flux<DataBuffer> stream(StreamingResponseBody body) {
+        return Flux.from(DataBufferUtils.outputStreamPublisher(out -> {
+            try {
+                body.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, DefaultDataBufferFactory.sharedInstance, Schedulers.boundedElastic()::schedule));
+    }
+}
@@ -0,0 +1,521 @@
+package com.taxease.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.mongodb.bulk.BulkWriteError;
+import com.taxease.model.ImportCheckpoint;
+import com.taxease.model.Income;
+import com.taxease.model.Investment;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Loads income or investment rows from a CSV or NDJSON stream. Rows are
+ * validated and normalized one at a time and written in unordered bulk
+ * inserts of {@code batchSize}; after each batch the tax positions get one
+ * delta per (user, year) and the {@link ImportCheckpoint} records how far the
+ * file has been committed. Record ids derive from the import id and row
+ * number, so replaying a batch after a crash is rejected as a duplicate
+ * instead of inserting the rows twice.
+ */
+@Service
+public class BulkImportService {
+
+    public enum Kind {
+        INCOME("income"), INVESTMENTS("investments");
+
+        private final String value;
+
+        Kind(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    public enum Format { CSV, NDJSON }
+
+    public record ImportRequest(Kind kind, Format format, String importId, String defaultUserId, int batchSize) {}
+
+    private record Row(long number, Object record) {}
+
+    private record PositionKey(String userId, String financialYear, Investment.TaxSection section) {}
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private static final Pattern FINANCIAL_YEAR = Pattern.compile("\\d{4}-\\d{2}");
+
+    // Grouping separators, currency signs and spaces are dropped from amounts: "₹1,20,000" -> 120000
+    private static final Pattern AMOUNT_NOISE = Pattern.compile("[,_\\s₹]|^Rs\\.?", Pattern.CASE_INSENSITIVE);
+
+    private static final CsvMapper CSV = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .build();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TaxPositionService taxPositionService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${import.batch-size:1000}")
+    private int defaultBatchSize;
+
+    @Value("${import.max-batch-size:10000}")
+    private int maxBatchSize;
+
+    // One run per import id at a time, or both would write the same rows
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public ImportRequest request(String kind, String format, String contentType, String importId,
+                                 String defaultUserId, Integer batchSize) {
+        Kind target = null;
+        for (Kind candidate : Kind.values()) {
+            if (candidate.getValue().equalsIgnoreCase(kind)) {
+                target = candidate;
+            }
+        }
+        if (target == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Import kind must be income or investments");
+        }
+
+        Format source;
+        if (format != null && !format.isBlank()) {
+            try {
+                source = Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Import format must be csv or ndjson");
+            }
+        } else {
+            source = contentType != null && contentType.toLowerCase(Locale.ROOT).contains("csv")
+                    ? Format.CSV : Format.NDJSON;
+        }
+
+        int size = batchSize == null ? defaultBatchSize : Math.max(1, Math.min(batchSize, maxBatchSize));
+        String id = importId != null && !importId.isBlank() ? importId.trim() : UUID.randomUUID().toString();
+        return new ImportRequest(target, source, id, blankToNull(defaultUserId), size);
+    }
+
+    /**
+     * Runs the import and writes an NDJSON report to {@code report}: one line
+     * per rejected row, one per committed batch and a final summary, which is
+     * also returned.
+     */
+    public Map<String, Object> run(ImportRequest request, InputStream in, OutputStream report) throws IOException {
+        if (!running.add(request.importId())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Import " + request.importId() + " is already running");
+        }
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(report)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(null);
+            return new Run(request, checkpoint(request), gen).execute(in);
+        } finally {
+            running.remove(request.importId());
+        }
+    }
+
+    private ImportCheckpoint checkpoint(ImportRequest request) {
+        ImportCheckpoint checkpoint = mongoTemplate.findById(request.importId(), ImportCheckpoint.class);
+        if (checkpoint == null) {
+            LocalDateTime now = LocalDateTime.now();
+            checkpoint = new ImportCheckpoint();
+            checkpoint.setId(request.importId());
+            checkpoint.setKind(request.kind().getValue());
+            checkpoint.setSeedEpochSeconds(Instant.now().getEpochSecond());
+            checkpoint.setStartedAt(now);
+            checkpoint.setUpdatedAt(now);
+            return mongoTemplate.insert(checkpoint);
+        }
+        if (!request.kind().getValue().equals(checkpoint.getKind())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Import " + request.importId() + " was started for " + checkpoint.getKind());
+        }
+        return checkpoint;
+    }
+
+    private final class Run {
+
+        private final ImportRequest request;
+        private final ImportCheckpoint checkpoint;
+        private final JsonGenerator gen;
+        private final long resumeAfter;
+        private final List<Row> batch;
+
+        private long rows;
+        private long duplicates;
+
+        Run(ImportRequest request, ImportCheckpoint checkpoint, JsonGenerator gen) {
+            this.request = request;
+            this.checkpoint = checkpoint;
+            this.gen = gen;
+            this.resumeAfter = checkpoint.getCommittedRows() != null ? checkpoint.getCommittedRows() : 0;
+            this.batch = new ArrayList<>(request.batchSize());
+        }
+
+        Map<String, Object> execute(InputStream in) throws IOException {
+            long started = System.nanoTime();
+            try (MappingIterator<Map<String, Object>> it = open(in)) {
+                long lastErrorOffset = -1;
+                while (true) {
+                    Map<String, Object> values;
+                    try {
+                        if (!it.hasNextValue()) {
+                            break;
+                        }
+                        values = it.nextValue();
+                        rows++;
+                    } catch (JsonParseException e) {
+                        // Malformed input cannot be resynchronised; report it and stop.
+                        reject(++rows, "Malformed input: " + e.getOriginalMessage());
+                        break;
+                    } catch (JsonMappingException e) {
+                        // A bad row is skipped, unless the reader cannot move past it
+                        long offset = it.getCurrentLocation().getCharOffset();
+                        if (offset == lastErrorOffset) {
+                            break;
+                        }
+                        lastErrorOffset = offset;
+                        if (++rows > resumeAfter) {
+                            reject(rows, "Unreadable row: " + e.getOriginalMessage());
+                        }
+                        continue;
+                    }
+                    if (rows <= resumeAfter) {
+                        continue;
+                    }
+                    try {
+                        batch.add(new Row(rows, toRecord(normalizeKeys(values))));
+                    } catch (IllegalArgumentException e) {
+                        reject(rows, e.getMessage());
+                    }
+                    if (batch.size() >= request.batchSize()) {
+                        flush(false);
+                    }
+                }
+            }
+            flush(true);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("importId", request.importId());
+            summary.put("kind", request.kind().getValue());
+            summary.put("rows", rows);
+            summary.put("resumedAfter", resumeAfter);
+            summary.put("inserted", checkpoint.getInserted());
+            summary.put("duplicates", duplicates);
+            summary.put("failed", checkpoint.getFailed());
+            summary.put("completed", true);
+            summary.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+            gen.writeObject(summary);
+            gen.writeRaw('\n');
+            gen.flush();
+            return summary;
+        }
+
+        private MappingIterator<Map<String, Object>> open(InputStream in) throws IOException {
+            if (request.format() == Format.CSV) {
+                return CSV.readerFor(Map.class).with(CsvSchema.emptySchema().withHeader()).readValues(in);
+            }
+            // Also accepts a single JSON array of rows
+            return objectMapper.readerFor(Map.class).readValues(in);
+        }
+
+        private Object toRecord(Map<String, Object> values) {
+            return request.kind() == Kind.INCOME ? toIncome(values) : toInvestment(values);
+        }
+
+        private Income toIncome(Map<String, Object> values) {
+            Income income = new Income();
+            income.setUserId(userId(values));
+            income.setFinancialYear(financialYear(values));
+            income.setSalary(amount(values, "salary", 0.0));
+            income.setBusinessIncome(amount(values, "businessincome", 0.0));
+            income.setCapitalGains(amount(values, "capitalgains", 0.0));
+            income.setOtherIncome(amount(values, "otherincome", 0.0));
+            income.calculateTotalIncome();
+            return income;
+        }
+
+        private Investment toInvestment(Map<String, Object> values) {
+            Investment investment = new Investment();
+            investment.setUserId(userId(values));
+            investment.setFinancialYear(financialYear(values));
+            investment.setType(investmentType(text(values, "type")));
+            Double amount = amount(values, "amount", null);
+            if (amount == null) {
+                throw new IllegalArgumentException("amount is required");
+            }
+            if (amount == 0) {
+                throw new IllegalArgumentException("amount must be greater than zero");
+            }
+            investment.setAmount(amount);
+            String section = text(values, "section");
+            if (section != null) {
+                investment.setSection(taxSection(section));
+            }
+            investment.setReturns(amount(values, "returns", 0.0));
+            investment.setDescription(text(values, "description"));
+            String dateInvested = text(values, "dateinvested");
+            if (dateInvested != null) {
+                try {
+                    investment.setDateInvested(LocalDate.parse(dateInvested));
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("dateInvested must be an ISO date (yyyy-MM-dd)");
+                }
+            }
+            return investment;
+        }
+
+        private String userId(Map<String, Object> values) {
+            String userId = text(values, "userid");
+            if (userId == null) {
+                userId = request.defaultUserId();
+            }
+            if (userId == null) {
+                throw new IllegalArgumentException("userId is required");
+            }
+            return userId;
+        }
+
+        private void flush(boolean last) throws IOException {
+            if (!batch.isEmpty()) {
+                write();
+            }
+            checkpoint.setCommittedRows(Math.max(resumeAfter, rows));
+            checkpoint.setCompleted(last);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            mongoTemplate.save(checkpoint);
+            // The summary line reports the final position
+            if (!last) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("checkpoint", checkpoint.getCommittedRows());
+                line.put("inserted", checkpoint.getInserted());
+                line.put("failed", checkpoint.getFailed());
+                gen.writeObject(line);
+                gen.writeRaw('\n');
+                gen.flush();
+            }
+        }
+
+        private void write() throws IOException {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object> records = new ArrayList<>(batch.size());
+            for (Row row : batch) {
+                // Ids are preset, so auditing would treat the rows as updates and leave createdAt empty
+                if (row.record() instanceof Income income) {
+                    income.setId(recordId(row.number()));
+                    income.setCreatedAt(now);
+                    income.setUpdatedAt(now);
+                } else if (row.record() instanceof Investment investment) {
+                    investment.setId(recordId(row.number()));
+                    investment.setCreatedAt(now);
+                    investment.setUpdatedAt(now);
+                }
+                records.add(row.record());
+            }
+
+            // Duplicates were written by an earlier run that stopped before its checkpoint. They count
+            // as inserted, but that run may have died before applying their deltas (or had one fail),
+            // so their positions are recomputed from source instead of adjusted
+            Set<Integer> notInserted = new HashSet<>();
+            Set<PositionKey> recompute = new HashSet<>();
+            int replayed = 0;
+            Class<?> type = request.kind() == Kind.INCOME ? Income.class : Investment.class;
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(records).execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    notInserted.add(error.getIndex());
+                    if (error.getCode() == DUPLICATE_KEY) {
+                        replayed++;
+                        recompute.add(positionOf(batch.get(error.getIndex()).record()));
+                    } else {
+                        reject(batch.get(error.getIndex()).number(), error.getMessage());
+                    }
+                }
+            }
+            duplicates += replayed;
+
+            Map<PositionKey, Double> deltas = new HashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (notInserted.contains(i) || recompute.contains(positionOf(batch.get(i).record()))) {
+                    continue;
+                }
+                if (batch.get(i).record() instanceof Income income) {
+                    deltas.merge(new PositionKey(income.getUserId(), income.getFinancialYear(), null),
+                            IncomeService.total(income), Double::sum);
+                } else if (batch.get(i).record() instanceof Investment investment) {
+                    deltas.merge(new PositionKey(investment.getUserId(), investment.getFinancialYear(),
+                            investment.getSection()), InvestmentService.amount(investment), Double::sum);
+                }
+            }
+            Set<String> investors = new HashSet<>();
+            deltas.forEach((key, delta) -> {
+                if (key.section() == null) {
+                    taxPositionService.incomeChanged(key.userId(), key.financialYear(), delta);
+                } else {
+                    taxPositionService.investmentChanged(key.userId(), key.financialYear(), key.section(), delta);
+                    investors.add(key.userId());
+                }
+            });
+            // Runs before the checkpoint is saved: if it fails, the next replay recomputes again
+            for (PositionKey key : recompute) {
+                taxPositionService.rebuild(key.userId(), key.financialYear());
+                if (request.kind() == Kind.INVESTMENTS) {
+                    investors.add(key.userId());
+                }
+            }
+            investors.forEach(userId -> dataVersions.changed(userId, DataVersions.Scope.INVESTMENTS));
+
+            checkpoint.setInserted(checkpoint.getInserted() + batch.size() - notInserted.size() + replayed);
+            batch.clear();
+        }
+
+        // The (userId, financialYear) position a row feeds, regardless of section
+        private static PositionKey positionOf(Object record) {
+            if (record instanceof Income income) {
+                return new PositionKey(income.getUserId(), income.getFinancialYear(), null);
+            }
+            Investment investment = (Investment) record;
+            return new PositionKey(investment.getUserId(), investment.getFinancialYear(), null);
+        }
+
+        private void reject(long row, String message) throws IOException {
+            checkpoint.setFailed(checkpoint.getFailed() + 1);
+            gen.writeStartObject();
+            gen.writeNumberField("row", row);
+            gen.writeStringField("error", message);
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        }
+
+        // seed seconds | import id hash | row: stable across runs of one import, ordered by row within it
+        private String recordId(long row) {
+            ByteBuffer bytes = ByteBuffer.allocate(12);
+            bytes.putInt((int) checkpoint.getSeedEpochSeconds().longValue());
+            bytes.putInt(request.importId().hashCode());
+            bytes.putInt((int) row);
+            return new ObjectId(bytes.array()).toHexString();
+        }
+    }
+
+    // "Business Income", "business_income" and "businessIncome" all become "businessincome"
+    private static Map<String, Object> normalizeKeys(Map<String, Object> values) {
+        Map<String, Object> normalized = new HashMap<>(values.size() * 2);
+        values.forEach((key, value) -> {
+            if (key != null) {
+                normalized.put(key.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT), value);
+            }
+        });
+        return normalized;
+    }
+
+    private static String text(Map<String, Object> values, String field) {
+        Object value = values.get(field);
+        return value == null ? null : blankToNull(value.toString());
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String financialYear(Map<String, Object> values) {
+        String financialYear = text(values, "financialyear");
+        if (financialYear == null) {
+            throw new IllegalArgumentException("financialYear is required");
+        }
+        if (!FINANCIAL_YEAR.matcher(financialYear).matches()) {
+            throw new IllegalArgumentException("financialYear must look like 2024-25");
+        }
+        return financialYear;
+    }
+
+    private static Double amount(Map<String, Object> values, String field, Double fallback) {
+        Object value = values.get(field);
+        double amount;
+        if (value instanceof Number number) {
+            amount = number.doubleValue();
+        } else {
+            String raw = value == null ? null : blankToNull(AMOUNT_NOISE.matcher(value.toString()).replaceAll(""));
+            if (raw == null) {
+                return fallback;
+            }
+            try {
+                amount = Double.parseDouble(raw);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(field + " must be a number");
+            }
+        }
+        if (!Double.isFinite(amount) || amount < 0) {
+            throw new IllegalArgumentException(field + " must be a non-negative number");
+        }
+        return amount;
+    }
+
+    private static Investment.InvestmentType investmentType(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("type is required");
+        }
+        for (Investment.InvestmentType type : Investment.InvestmentType.values()) {
+            if (type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown investment type: " + value);
+    }
+
+    // Accepts the statutory name ("80CCD(1B)") or the enum name ("SECTION_80CCD_1B")
+    private static Investment.TaxSection taxSection(String value) {
+        for (Investment.TaxSection section : Investment.TaxSection.values()) {
+            if (section.getValue().equalsIgnoreCase(value) || section.name().equalsIgnoreCase(value)) {
+                return section;
+            }
+        }
+        throw new IllegalArgumentException("Unknown tax section: " + value);
+    }
+}
@@ -0,0 +1,97 @@
+package com.taxease.service;
+
+import com.taxease.model.DataVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Strong ETags for the polled read endpoints (wallet, investment summary, tax
+ * report listings). Every write bumps the counter of the view it changes;
+ * readers build the tag from that counter, a single _id lookup, and answer
+ * {@code If-None-Match} with 304 before running any query or aggregation.
+ */
+@Service
+public class DataVersions {
+
+    private static final Logger log = LoggerFactory.getLogger(DataVersions.class);
+
+    public enum Scope {
+        WALLET("wallet"), INVESTMENTS("investments"), REPORTS("reports");
+
+        private final String field;
+
+        Scope(String field) {
+            this.field = field;
+        }
+
+        public String getField() {
+            return field;
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public void changed(String userId, Scope scope) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            mongoTemplate.upsert(byUser(userId), bump(scope), DataVersion.class);
+        } catch (RuntimeException e) {
+            // The write itself succeeded; clients see it once any later write bumps the counter
+            log.warn("Data version {} of user {} not bumped: {}", scope.getField(), userId, e.getMessage());
+        }
+    }
+
+    private static Query byUser(String userId) {
+        return Query.query(Criteria.where("id").is(userId));
+    }
+
+    private static Update bump(Scope scope) {
+        return new Update().inc(scope.getField(), 1).setOnInsert("epoch", System.currentTimeMillis());
+    }
+
+    /**
+     * The tag for one view of a user's data; {@code variant} holds whatever
+     * else shapes the body (financial year, cursor, page size).
+     */
+    public String etag(String userId, Scope scope, Object... variant) {
+        return etagOf(mongoTemplate.findOne(versionQuery(userId, scope), DataVersion.class), scope, variant);
+    }
+
+    // Shared with ReactiveDataVersions
+    static Query versionQuery(String userId, Scope scope) {
+        Query query = byUser(userId);
+        query.fields().include("epoch").include(scope.getField());
+        return query;
+    }
+
+    static String etagOf(DataVersion version, Scope scope, Object... variant) {
+        long epoch = 0;
+        long counter = 0;
+        if (version != null) {
+            epoch = version.getEpoch() != null ? version.getEpoch() : 0;
+            Long value = switch (scope) {
+                case WALLET -> version.getWallet();
+                case INVESTMENTS -> version.getInvestments();
+                case REPORTS -> version.getReports();
+            };
+            counter = value != null ? value : 0;
+        }
+        StringBuilder tag = new StringBuilder("\"").append(scope.getField())
+                .append('-').append(Long.toString(epoch, 36))
+                .append('-').append(counter);
+        for (Object part : variant) {
+            // ETag values may not contain quotes; cursors and years only use these characters anyway
+            tag.append('.').append(part == null ? "" : part.toString().replaceAll("[^A-Za-z0-9_-]", "_"));
+        }
+        return tag.append('"').toString();
+    }
+}
@@ -0,0 +1,172 @@
+package com.taxease.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.taxease.dto.PageDTO;
+import com.taxease.model.TaxReport;
+import com.taxease.model.User;
+import com.taxease.repository.TaxReportRepository;
+import com.taxease.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Size- and TTL-bounded cache in front of user and tax report lookups, which
+ * are read on every /auth/me, download and render but almost never change.
+ * Write paths evict what they touch; the TTL bounds staleness for anything
+ * that slips past (e.g. a read racing a write). Cached entities are shared,
+ * so callers must treat them as read-only.
+ */
+@Component
+public class EntityCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaxReportRepository taxReportRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.users.max-size:10000}")
+    private long userMaxSize;
+
+    @Value("${cache.users.ttl-seconds:300}")
+    private long userTtlSeconds;
+
+    @Value("${cache.reports.max-size:10000}")
+    private long reportMaxSize;
+
+    @Value("${cache.reports.ttl-seconds:300}")
+    private long reportTtlSeconds;
+
+    private Cache<String, User> users;
+
+    private Cache<String, TaxReport> reports;
+
+    // First page of each user's report listing at the default page size
+    private Cache<String, VersionedPage> reportPages;
+
+    private record VersionedPage(String version, PageDTO<TaxReport> page) {}
+
+    @PostConstruct
+    public void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(userMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(userTtlSeconds))
+                .recordStats()
+                .build();
+        reports = Caffeine.newBuilder()
+                .maximumSize(reportMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(reportTtlSeconds))
+                .recordStats()
+                .build();
+        reportPages = Caffeine.newBuilder()
+                .maximumSize(userMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(reportTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+        CaffeineCacheMetrics.monitor(meterRegistry, reports, "reports");
+        CaffeineCacheMetrics.monitor(meterRegistry, reportPages, "report-pages");
+    }
+
+    // Loads outside the cache's compute lock, so a slow Mongo read never pins a virtual thread
+    public Optional<User> findUser(String userId) {
+        User cached = users.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> loaded = userRepository.findById(userId);
+        loaded.ifPresent(user -> users.put(userId, user));
+        return loaded;
+    }
+
+    public Optional<User> cachedUser(String userId) {
+        return Optional.ofNullable(users.getIfPresent(userId));
+    }
+
+    public void putUser(User user) {
+        if (user.getId() != null) {
+            users.put(user.getId(), user);
+        }
+    }
+
+    public Optional<TaxReport> findReport(String reportId) {
+        TaxReport cached = reports.getIfPresent(reportId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<TaxReport> loaded = taxReportRepository.findById(reportId);
+        loaded.ifPresent(report -> reports.put(reportId, report));
+        return loaded;
+    }
+
+    /**
+     * The page is stored with the data version it was read under and only
+     * served for that version. A load that raced a new report may put back
+     * the old page after the eviction, but requests carrying the new version
+     * then reload instead of serving it under the new ETag.
+     */
+    public PageDTO<TaxReport> firstReportPage(String userId, String version, Supplier<PageDTO<TaxReport>> loader) {
+        VersionedPage cached = reportPages.getIfPresent(userId);
+        if (cached != null && cached.version().equals(version)) {
+            return cached.page();
+        }
+        PageDTO<TaxReport> loaded = loader.get();
+        reportPages.put(userId, new VersionedPage(version, loaded));
+        return loaded;
+    }
+
+    public void evictUser(String userId) {
+        if (userId != null) {
+            users.invalidate(userId);
+        }
+    }
+
+    // A new or changed report alters both its own entry and its owner's listing
+    public void evictReport(String reportId, String userId) {
+        if (reportId != null) {
+            reports.invalidate(reportId);
+        }
+        if (userId != null) {
+            reportPages.invalidate(userId);
+        }
+    }
+
+    public void evictAllReports() {
+        reports.invalidateAll();
+        reportPages.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", stats(users));
+        result.put("reports", stats(reports));
+        result.put("reportPages", stats(reportPages));
+        return result;
+    }
+
+    private static Map<String, Object> stats(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -1,11 +1,22 @@
 package com.taxease.service;
 
+import com.taxease.dto.PageDTO;
 import com.taxease.model.Income;
 import com.taxease.repository.IncomeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators.Literal;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @Service
 public class IncomeService {
@@ -13,37 +24,93 @@ public class IncomeService {
     @Autowired
     private IncomeRepository incomeRepository;
     
-    public List<Income> getIncome(String userId, String financialYear) {
-        if (financialYear != null && !financialYear.isEmpty()) {
-            return incomeRepository.findByUserIdAndFinancialYear(userId, financialYear);
-        }
-        return incomeRepository.findByUserId(userId);
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private TaxPositionService taxPositionService;
+    
+    @Autowired
+    private KeysetPager keysetPager;
+    
+    // Newest first, written straight from the cursor as a JSON array
+    public StreamingResponseBody streamIncome(String userId, String financialYear) {
+        return keysetPager.stream(owner(userId, financialYear), Income.class);
+    }
+    
+    public PageDTO<Income> getIncomePage(String userId, String financialYear, String cursor, Integer limit) {
+        return keysetPager.page(owner(userId, financialYear), Income.class, cursor, limit,
+                Income::getCreatedAt, Income::getId);
     }
     
     public Income createIncome(Income income) {
         income.calculateTotalIncome();
-        return incomeRepository.save(income);
+        Income saved = incomeRepository.save(income);
+        taxPositionService.incomeChanged(saved.getUserId(), saved.getFinancialYear(), total(saved));
+        return saved;
     }
     
-    @SuppressWarnings("null")
     public Income updateIncome(String id, Income incomeDetails) {
-        Income income = incomeRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Income record not found"));
-        
-        income.setSalary(incomeDetails.getSalary());
-        income.setBusinessIncome(incomeDetails.getBusinessIncome());
-        income.setCapitalGains(incomeDetails.getCapitalGains());
-        income.setOtherIncome(incomeDetails.getOtherIncome());
-        income.setFinancialYear(incomeDetails.getFinancialYear());
-        income.calculateTotalIncome();
+        // One round trip: the pre-image drives the position deltas and is patched locally for the response
+        LocalDateTime now = LocalDateTime.now();
+        Income income = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)),
+                updateOf(incomeDetails, now),
+                FindAndModifyOptions.options().returnNew(false), Income.class);
+        if (income == null) {
+            throw new RuntimeException("Income record not found");
+        }
+        String previousYear = income.getFinancialYear();
+        double previousTotal = total(income);
         
-        return incomeRepository.save(income);
+        applyTo(income, incomeDetails, now);
+        taxPositionService.incomeChanged(income.getUserId(), previousYear, -previousTotal);
+        taxPositionService.incomeChanged(income.getUserId(), income.getFinancialYear(), total(income));
+        return income;
     }
     
-    @SuppressWarnings("null")
     public void deleteIncome(String id) {
-        Income income = incomeRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Income record not found"));
-        incomeRepository.delete(income);
+        Income income = mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Income.class);
+        if (income == null) {
+            throw new RuntimeException("Income record not found");
+        }
+        taxPositionService.incomeChanged(income.getUserId(), income.getFinancialYear(), -total(income));
+    }
+    
+    // Sets the editable fields, then derives totalIncome from them server-side (same sum as calculateTotalIncome)
+    static AggregationUpdate updateOf(Income details, LocalDateTime now) {
+        return AggregationUpdate.update()
+                .set(SetOperation.set("salary").toValue(details.getSalary())
+                        .and().set("businessIncome").toValue(details.getBusinessIncome())
+                        .and().set("capitalGains").toValue(details.getCapitalGains())
+                        .and().set("otherIncome").toValue(details.getOtherIncome())
+                        .and().set("financialYear").toValue(Literal.asLiteral(details.getFinancialYear()))
+                        .and().set("updatedAt").toValue(now))
+                .set(SetOperation.set("totalIncome").toValue(ArithmeticOperators.Add
+                        .valueOf(ConditionalOperators.ifNull("salary").then(0))
+                        .add(ConditionalOperators.ifNull("businessIncome").then(0))
+                        .add(ConditionalOperators.ifNull("capitalGains").then(0))
+                        .add(ConditionalOperators.ifNull("otherIncome").then(0))));
+    }
+    
+    static void applyTo(Income income, Income details, LocalDateTime now) {
+        income.setSalary(details.getSalary());
+        income.setBusinessIncome(details.getBusinessIncome());
+        income.setCapitalGains(details.getCapitalGains());
+        income.setOtherIncome(details.getOtherIncome());
+        income.setFinancialYear(details.getFinancialYear());
+        income.setUpdatedAt(now);
+        income.calculateTotalIncome();
+    }
+    
+    static Criteria owner(String userId, String financialYear) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (financialYear != null && !financialYear.isEmpty()) {
+            criteria = criteria.and("financialYear").is(financialYear);
+        }
+        return criteria;
+    }
+    
+    static double total(Income income) {
+        return income.getTotalIncome() != null ? income.getTotalIncome() : 0.0;
     }
 }
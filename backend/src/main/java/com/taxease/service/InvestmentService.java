@@ -1,12 +1,23 @@
 package com.taxease.service;
 
+import com.taxease.dto.InvestmentDTO;
+import com.taxease.dto.PageDTO;
 import com.taxease.model.Investment;
 import com.taxease.repository.InvestmentRepository;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.Map;
 
 @Service
@@ -15,76 +26,155 @@ public class InvestmentService {
     @Autowired
     private InvestmentRepository investmentRepository;
     
-    public List<Investment> getInvestments(String userId, String financialYear) {
-        if (financialYear != null && !financialYear.isEmpty()) {
-            return investmentRepository.findByUserIdAndFinancialYear(userId, financialYear);
-        }
-        return investmentRepository.findByUserId(userId);
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private TaxPositionService taxPositionService;
+    
+    @Autowired
+    private DataVersions dataVersions;
+    
+    @Autowired
+    private KeysetPager keysetPager;
+    
+    // Newest first, written straight from the cursor as a JSON array
+    public StreamingResponseBody streamInvestments(String userId, String financialYear) {
+        return keysetPager.stream(owner(userId, financialYear), Investment.class);
     }
     
-    public Map<String, Object> getInvestmentSummary(String userId, String financialYear) {
-        List<Investment> investments = getInvestments(userId, financialYear);
-        
-        double totalInvested = investments.stream()
-                .mapToDouble(Investment::getAmount)
-                .sum();
-        
-        double section80C = investments.stream()
-                .filter(inv -> inv.getSection() == Investment.TaxSection.SECTION_80C)
-                .mapToDouble(Investment::getAmount)
-                .sum();
-        
-        double section80CCD = investments.stream()
-                .filter(inv -> inv.getSection() == Investment.TaxSection.SECTION_80CCD_1B)
-                .mapToDouble(Investment::getAmount)
-                .sum();
-        
-        double section80D = investments.stream()
-                .filter(inv -> inv.getSection() == Investment.TaxSection.SECTION_80D)
-                .mapToDouble(Investment::getAmount)
-                .sum();
-        
-        Map<String, Double> byType = new HashMap<>();
-        for (Investment inv : investments) {
-            String type = inv.getType().name();
-            byType.put(type, byType.getOrDefault(type, 0.0) + inv.getAmount());
+    public PageDTO<Investment> getInvestmentPage(String userId, String financialYear, String cursor, Integer limit) {
+        return keysetPager.page(owner(userId, financialYear), Investment.class, cursor, limit,
+                Investment::getCreatedAt, Investment::getId);
+    }
+    
+    public InvestmentDTO.Summary getInvestmentSummary(String userId, String financialYear) {
+        return summaryOf(mongoTemplate.aggregate(summaryAggregation(userId, financialYear), Document.class));
+    }
+
+    // At most one row per (section, type) comes back instead of every investment
+    static TypedAggregation<Investment> summaryAggregation(String userId, String financialYear) {
+        return Aggregation.newAggregation(Investment.class,
+                Aggregation.match(owner(userId, financialYear)),
+                Aggregation.group("section", "type").sum("amount").as("amount"));
+    }
+
+    static InvestmentDTO.Summary summaryOf(Iterable<Document> rows) {
+        SummaryTotals totals = new SummaryTotals();
+        for (Document row : rows) {
+            Document key = row.get("_id", Document.class);
+            Object section = key != null ? key.get("section") : null;
+            Object type = key != null ? key.get("type") : null;
+            totals.add(section != null ? Investment.TaxSection.valueOf(section.toString()) : null,
+                    type != null ? Investment.InvestmentType.valueOf(type.toString()) : null,
+                    row.get("amount") instanceof Number n ? n.doubleValue() : 0.0);
+        }
+        return totals.toSummary();
+    }
+
+    // Totals indexed by enum ordinal; only the byType map is boxed, once per type held
+    private static class SummaryTotals {
+        private final double[] bySection = new double[Investment.TaxSection.values().length];
+        private final double[] byType = new double[Investment.InvestmentType.values().length];
+        private final boolean[] held = new boolean[byType.length];
+        private double totalInvested;
+
+        void add(Investment.TaxSection section, Investment.InvestmentType type, double amount) {
+            totalInvested += amount;
+            if (section != null) {
+                bySection[section.ordinal()] += amount;
+            }
+            if (type != null) {
+                byType[type.ordinal()] += amount;
+                held[type.ordinal()] = true;
+            }
+        }
+
+        InvestmentDTO.Summary toSummary() {
+            Map<Investment.InvestmentType, Double> types = new EnumMap<>(Investment.InvestmentType.class);
+            for (Investment.InvestmentType type : Investment.InvestmentType.values()) {
+                if (held[type.ordinal()]) {
+                    types.put(type, byType[type.ordinal()]);
+                }
+            }
+            return new InvestmentDTO.Summary(totalInvested,
+                    bySection[Investment.TaxSection.SECTION_80C.ordinal()],
+                    bySection[Investment.TaxSection.SECTION_80CCD_1B.ordinal()],
+                    bySection[Investment.TaxSection.SECTION_80D.ordinal()],
+                    types);
         }
-        
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("totalInvested", totalInvested);
-        summary.put("section80C", section80C);
-        summary.put("section80CCD", section80CCD);
-        summary.put("section80D", section80D);
-        summary.put("byType", byType);
-        
-        return summary;
     }
     
     @SuppressWarnings("null")
     public Investment createInvestment(Investment investment) {
         Investment saved = investmentRepository.save(investment);
+        taxPositionService.investmentChanged(saved.getUserId(), saved.getFinancialYear(),
+                saved.getSection(), amount(saved));
+        dataVersions.changed(saved.getUserId(), DataVersions.Scope.INVESTMENTS);
         return saved;
     }
     
-    @SuppressWarnings("null")
     public Investment updateInvestment(String id, Investment investmentDetails) {
-        Investment investment = investmentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Investment not found"));
-        
-        investment.setType(investmentDetails.getType());
-        investment.setAmount(investmentDetails.getAmount());
-        investment.setSection(investmentDetails.getSection());
-        investment.setReturns(investmentDetails.getReturns());
-        investment.setDescription(investmentDetails.getDescription());
-        investment.setFinancialYear(investmentDetails.getFinancialYear());
+        // One round trip: the pre-image drives the position deltas and is patched locally for the response
+        LocalDateTime now = LocalDateTime.now();
+        Investment investment = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)),
+                updateOf(investmentDetails, now),
+                FindAndModifyOptions.options().returnNew(false), Investment.class);
+        if (investment == null) {
+            throw new RuntimeException("Investment not found");
+        }
+        String previousYear = investment.getFinancialYear();
+        Investment.TaxSection previousSection = investment.getSection();
+        double previousAmount = amount(investment);
         
-        return investmentRepository.save(investment);
+        applyTo(investment, investmentDetails, now);
+        taxPositionService.investmentChanged(investment.getUserId(), previousYear, previousSection, -previousAmount);
+        taxPositionService.investmentChanged(investment.getUserId(), investment.getFinancialYear(),
+                investment.getSection(), amount(investment));
+        dataVersions.changed(investment.getUserId(), DataVersions.Scope.INVESTMENTS);
+        return investment;
     }
     
-    @SuppressWarnings("null")
     public void deleteInvestment(String id) {
-        Investment investment = investmentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Investment not found"));
-        investmentRepository.delete(investment);
+        Investment investment = mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Investment.class);
+        if (investment == null) {
+            throw new RuntimeException("Investment not found");
+        }
+        taxPositionService.investmentChanged(investment.getUserId(), investment.getFinancialYear(),
+                investment.getSection(), -amount(investment));
+        dataVersions.changed(investment.getUserId(), DataVersions.Scope.INVESTMENTS);
+    }
+    
+    static Update updateOf(Investment details, LocalDateTime now) {
+        return new Update()
+                .set("type", details.getType())
+                .set("amount", details.getAmount())
+                .set("section", details.getSection())
+                .set("returns", details.getReturns())
+                .set("description", details.getDescription())
+                .set("financialYear", details.getFinancialYear())
+                .set("updatedAt", now);
+    }
+    
+    static void applyTo(Investment investment, Investment details, LocalDateTime now) {
+        investment.setType(details.getType());
+        investment.setAmount(details.getAmount());
+        investment.setSection(details.getSection());
+        investment.setReturns(details.getReturns());
+        investment.setDescription(details.getDescription());
+        investment.setFinancialYear(details.getFinancialYear());
+        investment.setUpdatedAt(now);
+    }
+    
+    static Criteria owner(String userId, String financialYear) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (financialYear != null && !financialYear.isEmpty()) {
+            criteria = criteria.and("financialYear").is(financialYear);
+        }
+        return criteria;
+    }
+    
+    static double amount(Investment investment) {
+        return investment.getAmount() != null ? investment.getAmount() : 0.0;
     }
 }
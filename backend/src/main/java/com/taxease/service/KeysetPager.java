@@ -0,0 +1,139 @@
+package com.taxease.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.taxease.dto.PageDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Newest-first listings over (createdAt, _id), either as keyset pages with an
+ * opaque continuation token or as a JSON array streamed from a Mongo cursor.
+ * Both walk the (userId, ..., createdAt, _id) indexes, so neither the page
+ * cost nor the heap grows with a user's history.
+ */
+@Component
+public class KeysetPager {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final int FLUSH_EVERY = 200;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
+    private record Cursor(LocalDateTime createdAt, String id) {}
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public <T> PageDTO<T> page(Criteria filter, Class<T> type, String cursor, Integer limit,
+                               Function<T, LocalDateTime> createdAt, Function<T, String> id) {
+        return toPage(mongoTemplate.find(pageQuery(filter, cursor, limit), type), limit, createdAt, id);
+    }
+
+    // Query halves of page/stream, shared with the reactive services
+    public static Query listQuery(Criteria filter) {
+        return Query.query(filter).with(NEWEST_FIRST);
+    }
+
+    // Fetches one row past the page so the last page needs no extra round trip
+    public static Query pageQuery(Criteria filter, String cursor, Integer limit) {
+        Query query = listQuery(filter).limit(pageSize(limit) + 1);
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(after(decode(cursor)));
+        }
+        return query;
+    }
+
+    public static <T> PageDTO<T> toPage(List<T> fetched, Integer limit,
+                                        Function<T, LocalDateTime> createdAt, Function<T, String> id) {
+        int size = pageSize(limit);
+        List<T> items = fetched;
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = new ArrayList<>(items.subList(0, size));
+            T last = items.get(size - 1);
+            nextCursor = encode(createdAt.apply(last), id.apply(last));
+        }
+        return new PageDTO<>(items, nextCursor);
+    }
+
+    public <T> StreamingResponseBody stream(Criteria filter, Class<T> type) {
+        Query query = listQuery(filter);
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (Stream<T> documents = mongoTemplate.stream(query, type);
+                 JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gen.writeStartArray();
+                long written = 0;
+                Iterator<T> it = documents.iterator();
+                while (it.hasNext()) {
+                    writer.writeValue(gen, it.next());
+                    if (++written % FLUSH_EVERY == 0) {
+                        gen.flush();
+                    }
+                }
+                gen.writeEndArray();
+            }
+        };
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // Rows strictly after the cursor in (createdAt desc, _id desc) order; missing createdAt sorts last
+    private static Criteria after(Cursor cursor) {
+        if (cursor.createdAt() == null) {
+            return Criteria.where("createdAt").is(null).and("id").lt(cursor.id());
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(cursor.createdAt()),
+                Criteria.where("createdAt").is(cursor.createdAt()).and("id").lt(cursor.id()),
+                Criteria.where("createdAt").is(null));
+    }
+
+    private static String encode(LocalDateTime createdAt, String id) {
+        String raw = (createdAt != null ? createdAt.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf('|');
+            String id = raw.substring(split + 1);
+            if (split < 0 || id.isEmpty()) {
+                throw new IllegalArgumentException();
+            }
+            return new Cursor(split == 0 ? null : LocalDateTime.parse(raw.substring(0, split)), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.taxease.service;
+
+import com.taxease.model.TaxReport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded, LRU-evicted on-disk store of rendered report PDFs. Entries
+ * are addressed by a hash of the report id and its updatedAt, so an edited
+ * report simply misses and its stale file ages out.
+ * <p>
+ * Lookups hand out an already-open channel: a file evicted and deleted while
+ * its download is in progress stays readable until the channel is closed.
+ */
+@Component
+public class PdfCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfCache.class);
+
+    private static final String SUFFIX = ".pdf";
+
+    /** An open cached file; whoever receives it writes or closes it exactly once. */
+    public record CachedPdf(FileChannel channel, long size) implements Closeable {
+
+        /** Streams the file with FileChannel.transferTo, never loading it on heap, then closes it. */
+        public void writeTo(OutputStream out) throws IOException {
+            try (channel) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = 0;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${pdf.cache.dir:${java.io.tmpdir}/taxease-pdf-cache}")
+    private String directory;
+
+    @Value("${pdf.cache.max-bytes:536870912}")
+    private long maxBytes;
+
+    private Path root;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long totalBytes;
+
+    // Same meter name and tags as the Caffeine caches, so all hit rates chart together
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Path.of(directory);
+        Files.createDirectories(root);
+
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(root)) {
+            listing.forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(PdfCache::lastModified));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(SUFFIX)) {
+                long size = Files.size(file);
+                entries.put(name.substring(0, name.length() - SUFFIX.length()), size);
+                totalBytes += size;
+            } else {
+                Files.deleteIfExists(file); // leftover temp file from an interrupted write
+            }
+        }
+        deleteAll(evict());
+
+        hits = Counter.builder("cache.gets").tag("cache", "pdf").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("cache.gets").tag("cache", "pdf").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("cache.size", this, cache -> cache.locked(() -> cache.entries.size()))
+                .tag("cache", "pdf").register(meterRegistry);
+        Gauge.builder("taxease.pdf.cache.bytes", this, cache -> cache.locked(() -> cache.totalBytes))
+                .baseUnit("bytes").register(meterRegistry);
+        log.info("PDF cache at {} holds {} files ({} bytes)", root, entries.size(), totalBytes);
+    }
+
+    private double locked(LongSupplier read) {
+        lock.lock();
+        try {
+            return read.getAsLong();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static String key(TaxReport report) {
+        String identity = report.getId() + "@" + (report.getUpdatedAt() != null ? report.getUpdatedAt() : "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Opens the cached file, or returns null on a miss. The file is opened
+     * under the lock, before any eviction can delete it; a file that has gone
+     * missing regardless counts as a miss, so the caller renders again.
+     */
+    public CachedPdf get(String key) {
+        CachedPdf pdf = null;
+        lock.lock();
+        try {
+            Long size = entries.get(key);
+            if (size != null) {
+                pdf = new CachedPdf(FileChannel.open(root.resolve(key + SUFFIX), StandardOpenOption.READ), size);
+            }
+        } catch (IOException e) {
+            Long size = entries.remove(key);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        } finally {
+            lock.unlock();
+        }
+        (pdf != null ? hits : misses).increment();
+        return pdf;
+    }
+
+    public boolean contains(String key) {
+        lock.lock();
+        try {
+            return entries.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stores a rendered PDF and returns it opened, before it can be evicted. */
+    public CachedPdf put(String key, byte[] pdf) {
+        Path path = root.resolve(key + SUFFIX);
+        Path temp = root.resolve(key + "." + UUID.randomUUID() + ".tmp");
+        FileChannel channel;
+        try {
+            Files.write(temp, pdf);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // best effort
+            }
+            throw new UncheckedIOException("Could not cache rendered PDF", e);
+        }
+
+        List<String> evicted;
+        lock.lock();
+        try {
+            Long previous = entries.put(key, (long) pdf.length);
+            totalBytes += pdf.length - (previous != null ? previous : 0);
+            evicted = evict();
+        } finally {
+            lock.unlock();
+        }
+        deleteAll(evicted);
+        return new CachedPdf(channel, pdf.length);
+    }
+
+    // Caller holds the lock; the newest entry is never evicted
+    private List<String> evict() {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            totalBytes -= eldest.getValue();
+            evicted.add(eldest.getKey());
+            it.remove();
+        }
+        return evicted;
+    }
+
+    // File deletes happen outside the lock
+    private void deleteAll(List<String> keys) {
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(root.resolve(key + SUFFIX));
+            } catch (IOException e) {
+                log.warn("Could not delete evicted PDF {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.taxease.service;
+
+import com.taxease.dto.AuthDTO;
+import com.taxease.model.User;
+import com.taxease.repository.ReactiveUserRepository;
+import com.taxease.security.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class ReactiveAuthService {
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private AuthThrottle authThrottle;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    public Mono<AuthDTO.AuthResponse> signup(AuthDTO.SignupRequest request, String clientIp) {
+        String email = request.getEmail().toLowerCase();
+        // BCrypt runs on its own pool, never on the event loop
+        return Mono.using(() -> authThrottle.acquire(clientIp, email), permit -> Mono
+                .fromFuture(() -> passwordHasher.hashAsync(request.getPassword()))
+                .flatMap(hash -> {
+                    User user = new User();
+                    user.setName(request.getName());
+                    user.setEmail(email);
+                    user.setPasswordHash(hash);
+                    user.setTaxRegime(User.TaxRegime.NEW);
+                    // The unique email index rejects duplicates, so no existence check is needed first
+                    return userRepository.save(user)
+                            .onErrorMap(DuplicateKeyException.class,
+                                    e -> new RuntimeException("User already exists with this email"));
+                })
+                .doOnNext(user -> entityCache.evictUser(user.getId()))
+                .map(this::authResponse), AuthThrottle.Permit::close);
+    }
+
+    public Mono<AuthDTO.AuthResponse> login(AuthDTO.LoginRequest request, String clientIp) {
+        return Mono.using(() -> authThrottle.acquire(clientIp, request.getEmail()), permit -> userRepository
+                .findByEmail(request.getEmail().toLowerCase())
+                .switchIfEmpty(Mono.error(new RuntimeException("Invalid email or password")))
+                .flatMap(user -> Mono.fromFuture(() -> passwordHasher.matchesAsync(request.getPassword(), user.getPasswordHash()))
+                        .flatMap(matches -> matches
+                                ? rehashIfNeeded(user, request.getPassword()).thenReturn(authResponse(user))
+                                : Mono.error(new RuntimeException("Invalid email or password")))),
+                AuthThrottle.Permit::close);
+    }
+
+    // Same conditional upgrade as AuthService; a busy pool just leaves it for the next login
+    private Mono<Void> rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPasswordHash())) {
+            return Mono.empty();
+        }
+        return Mono.fromFuture(() -> passwordHasher.hashAsync(rawPassword))
+                .flatMap(upgraded -> reactiveMongoTemplate.updateFirst(
+                        Query.query(Criteria.where("id").is(user.getId()).and("passwordHash").is(user.getPasswordHash())),
+                        Update.update("passwordHash", upgraded), User.class))
+                .doOnNext(result -> entityCache.evictUser(user.getId()))
+                .onErrorResume(ResponseStatusException.class, e -> Mono.empty())
+                .then();
+    }
+
+    public Mono<AuthDTO.UserDTO> getMe(String userId) {
+        return Mono.justOrEmpty(entityCache.cachedUser(userId))
+                .switchIfEmpty(userRepository.findById(userId).doOnNext(entityCache::putUser))
+                .switchIfEmpty(Mono.error(new RuntimeException("User not found")))
+                .map(AuthService::toUserDTO);
+    }
+
+    private AuthDTO.AuthResponse authResponse(User user) {
+        return new AuthDTO.AuthResponse(true, jwtUtil.generateToken(user.getId()), AuthService.toUserDTO(user));
+    }
+}
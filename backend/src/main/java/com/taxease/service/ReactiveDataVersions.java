@@ -0,0 +1,27 @@
+package com.taxease.service;
+
+import com.taxease.model.DataVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@link DataVersions} tags read through the reactive driver, so the
+ * polled reactive endpoints answer 304 without tying up a blocking thread.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveDataVersions {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public Mono<String> etag(String userId, DataVersions.Scope scope, Object... variant) {
+        return reactiveMongoTemplate.findOne(DataVersions.versionQuery(userId, scope), DataVersion.class)
+                .map(version -> DataVersions.etagOf(version, scope, variant))
+                // No writes yet: the same tag the blocking lookup builds from a missing document
+                .defaultIfEmpty(DataVersions.etagOf(null, scope, variant));
+    }
+}
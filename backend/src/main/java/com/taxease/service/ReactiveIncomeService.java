@@ -0,0 +1,74 @@
+package com.taxease.service;
+
+import com.taxease.dto.PageDTO;
+import com.taxease.model.Income;
+import com.taxease.repository.ReactiveIncomeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Service
+@Profile("reactive")
+public class ReactiveIncomeService {
+
+    @Autowired
+    private ReactiveIncomeRepository incomeRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private TaxPositionService taxPositionService;
+
+    // Newest first, emitted as the cursor is read
+    public Flux<Income> getIncome(String userId, String financialYear) {
+        return reactiveMongoTemplate.find(KeysetPager.listQuery(IncomeService.owner(userId, financialYear)), Income.class);
+    }
+
+    public Mono<PageDTO<Income>> getIncomePage(String userId, String financialYear, String cursor, Integer limit) {
+        return Mono.fromCallable(() -> KeysetPager.pageQuery(IncomeService.owner(userId, financialYear), cursor, limit))
+                .flatMap(query -> reactiveMongoTemplate.find(query, Income.class).collectList())
+                .map(items -> KeysetPager.toPage(items, limit, Income::getCreatedAt, Income::getId));
+    }
+
+    public Mono<Income> createIncome(Income income) {
+        income.calculateTotalIncome();
+        return incomeRepository.save(income)
+                .flatMap(saved -> Blocking.run(() -> taxPositionService.incomeChanged(
+                        saved.getUserId(), saved.getFinancialYear(), IncomeService.total(saved)))
+                        .thenReturn(saved));
+    }
+
+    public Mono<Income> updateIncome(String id, Income incomeDetails) {
+        LocalDateTime now = LocalDateTime.now();
+        return reactiveMongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)),
+                        IncomeService.updateOf(incomeDetails, now),
+                        FindAndModifyOptions.options().returnNew(false), Income.class)
+                .switchIfEmpty(Mono.error(new RuntimeException("Income record not found")))
+                .flatMap(income -> {
+                    String previousYear = income.getFinancialYear();
+                    double previousTotal = IncomeService.total(income);
+                    IncomeService.applyTo(income, incomeDetails, now);
+                    return Blocking.run(() -> {
+                        taxPositionService.incomeChanged(income.getUserId(), previousYear, -previousTotal);
+                        taxPositionService.incomeChanged(income.getUserId(), income.getFinancialYear(),
+                                IncomeService.total(income));
+                    }).thenReturn(income);
+                });
+    }
+
+    public Mono<Void> deleteIncome(String id) {
+        return reactiveMongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Income.class)
+                .switchIfEmpty(Mono.error(new RuntimeException("Income record not found")))
+                .flatMap(income -> Blocking.run(() -> taxPositionService.incomeChanged(
+                        income.getUserId(), income.getFinancialYear(), -IncomeService.total(income))));
+    }
+}
@@ -0,0 +1,93 @@
+package com.taxease.service;
+
+import com.taxease.dto.InvestmentDTO;
+import com.taxease.dto.PageDTO;
+import com.taxease.model.Investment;
+import com.taxease.repository.ReactiveInvestmentRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Service
+@Profile("reactive")
+public class ReactiveInvestmentService {
+
+    @Autowired
+    private ReactiveInvestmentRepository investmentRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private TaxPositionService taxPositionService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    // Newest first, emitted as the cursor is read
+    public Flux<Investment> getInvestments(String userId, String financialYear) {
+        return reactiveMongoTemplate.find(
+                KeysetPager.listQuery(InvestmentService.owner(userId, financialYear)), Investment.class);
+    }
+
+    public Mono<PageDTO<Investment>> getInvestmentPage(String userId, String financialYear, String cursor, Integer limit) {
+        return Mono.fromCallable(() -> KeysetPager.pageQuery(InvestmentService.owner(userId, financialYear), cursor, limit))
+                .flatMap(query -> reactiveMongoTemplate.find(query, Investment.class).collectList())
+                .map(items -> KeysetPager.toPage(items, limit, Investment::getCreatedAt, Investment::getId));
+    }
+
+    public Mono<InvestmentDTO.Summary> getInvestmentSummary(String userId, String financialYear) {
+        return reactiveMongoTemplate.aggregate(InvestmentService.summaryAggregation(userId, financialYear), Document.class)
+                .collectList()
+                .map(InvestmentService::summaryOf);
+    }
+
+    public Mono<Investment> createInvestment(Investment investment) {
+        return investmentRepository.save(investment)
+                .flatMap(saved -> Blocking.run(() -> {
+                    taxPositionService.investmentChanged(saved.getUserId(), saved.getFinancialYear(),
+                            saved.getSection(), InvestmentService.amount(saved));
+                    dataVersions.changed(saved.getUserId(), DataVersions.Scope.INVESTMENTS);
+                }).thenReturn(saved));
+    }
+
+    public Mono<Investment> updateInvestment(String id, Investment investmentDetails) {
+        LocalDateTime now = LocalDateTime.now();
+        return reactiveMongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)),
+                        InvestmentService.updateOf(investmentDetails, now),
+                        FindAndModifyOptions.options().returnNew(false), Investment.class)
+                .switchIfEmpty(Mono.error(new RuntimeException("Investment not found")))
+                .flatMap(investment -> {
+                    String previousYear = investment.getFinancialYear();
+                    Investment.TaxSection previousSection = investment.getSection();
+                    double previousAmount = InvestmentService.amount(investment);
+                    InvestmentService.applyTo(investment, investmentDetails, now);
+                    return Blocking.run(() -> {
+                        taxPositionService.investmentChanged(investment.getUserId(), previousYear,
+                                previousSection, -previousAmount);
+                        taxPositionService.investmentChanged(investment.getUserId(), investment.getFinancialYear(),
+                                investment.getSection(), InvestmentService.amount(investment));
+                        dataVersions.changed(investment.getUserId(), DataVersions.Scope.INVESTMENTS);
+                    }).thenReturn(investment);
+                });
+    }
+
+    public Mono<Void> deleteInvestment(String id) {
+        return reactiveMongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Investment.class)
+                .switchIfEmpty(Mono.error(new RuntimeException("Investment not found")))
+                .flatMap(investment -> Blocking.run(() -> {
+                    taxPositionService.investmentChanged(investment.getUserId(), investment.getFinancialYear(),
+                            investment.getSection(), -InvestmentService.amount(investment));
+                    dataVersions.changed(investment.getUserId(), DataVersions.Scope.INVESTMENTS);
+                }));
+    }
+}
@@ -0,0 +1,31 @@
+package com.taxease.service;
+
+import com.taxease.dto.PageDTO;
+import com.taxease.model.TaxReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Report listings on the reactive driver; generation and rendering stay in TaxService
+@Service
+@Profile("reactive")
+public class ReactiveTaxService {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    // Newest first, emitted as the cursor is read
+    public Flux<TaxReport> getTaxReports(String userId) {
+        return reactiveMongoTemplate.find(KeysetPager.listQuery(Criteria.where("userId").is(userId)), TaxReport.class);
+    }
+
+    public Mono<PageDTO<TaxReport>> getTaxReportPage(String userId, String cursor, Integer limit) {
+        return Mono.fromCallable(() -> KeysetPager.pageQuery(Criteria.where("userId").is(userId), cursor, limit))
+                .flatMap(query -> reactiveMongoTemplate.find(query, TaxReport.class).collectList())
+                .map(items -> KeysetPager.toPage(items, limit, TaxReport::getCreatedAt, TaxReport::getId));
+    }
+}
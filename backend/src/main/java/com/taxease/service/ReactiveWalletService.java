@@ -0,0 +1,68 @@
+package com.taxease.service;
+
+import com.taxease.dto.WalletDTO;
+import com.taxease.model.UserInvestment;
+import com.taxease.repository.ReactiveUserInvestmentRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Wallet reads run on the reactive driver. Writes keep their multi-step
+ * atomic updates in {@link WalletService} and run on the blocking scheduler.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveWalletService {
+
+    @Autowired
+    private ReactiveUserInvestmentRepository userInvestmentRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private WalletService walletService;
+
+    public Flux<UserInvestment> getWallet(String userId, String financialYear) {
+        if (financialYear == null || financialYear.isBlank()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Financial year is required"));
+        }
+        return userInvestmentRepository.findByUserIdAndFinancialYearOrderBySectionAsc(userId, financialYear)
+                .doOnNext(UserInvestment::recalculateInvested);
+    }
+
+    public Mono<WalletDTO.Summary> getWalletSummary(String userId, String financialYear) {
+        if (financialYear == null || financialYear.isBlank()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Financial year is required"));
+        }
+        return reactiveMongoTemplate.aggregate(WalletService.summaryAggregation(userId, financialYear), Document.class)
+                .collectList()
+                .map(WalletService::summaryOf);
+    }
+
+    public Mono<UserInvestment> addInvestment(String userId, String financialYear, String section,
+                                              String name, Double amount) {
+        return Blocking.call(() -> walletService.addInvestment(userId, financialYear, section, name, amount));
+    }
+
+    public Mono<UserInvestment> updateInvestmentSlot(String sectionId, String slotId, String name, Double amount) {
+        return Blocking.call(() -> walletService.updateInvestmentSlot(sectionId, slotId, name, amount));
+    }
+
+    public Mono<WalletDTO.SlotDeleted> deleteInvestmentSlot(String sectionId, String slotId) {
+        return Blocking.call(() -> walletService.deleteInvestmentSlot(sectionId, slotId));
+    }
+
+    public Mono<List<UserInvestment>> initializeWallet(String userId, String financialYear, List<String> sections) {
+        return Blocking.call(() -> walletService.initializeWallet(userId, financialYear, sections));
+    }
+}
@@ -0,0 +1,86 @@
+package com.taxease.service;
+
+import com.taxease.model.TaxReport;
+import com.taxease.model.User;
+import com.taxease.repository.TaxReportRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams a ZIP of every report a user owns. Reports come off a Mongo cursor
+ * and each PDF is rendered straight into its ZIP entry (or copied from the
+ * PDF cache), so memory stays flat regardless of history size.
+ */
+@Service
+public class ReportExportService {
+
+    @Autowired
+    private TaxReportRepository taxReportRepository;
+
+    @Autowired
+    private TaxService taxService;
+
+    @Autowired
+    private PdfCache pdfCache;
+
+    @Value("${pdf.export.max-concurrent:2}")
+    private int maxConcurrentExports;
+
+    private Semaphore exportPermits;
+
+    @PostConstruct
+    public void init() {
+        exportPermits = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * The export slot is taken when the body starts running, before any bytes
+     * are written, so a full house still answers 429. Taking it any earlier
+     * would leak it whenever the async dispatch never runs the body.
+     */
+    public StreamingResponseBody exportReports(String userId) {
+        return out -> {
+            if (!exportPermits.tryAcquire()) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many report exports in progress, please retry shortly");
+            }
+            try (Stream<TaxReport> reports = taxReportRepository.streamByUserIdOrderByCreatedAtDesc(userId);
+                 ZipOutputStream zip = new ZipOutputStream(out)) {
+                User owner = null;
+                Iterator<TaxReport> it = reports.iterator();
+                while (it.hasNext()) {
+                    TaxReport report = it.next();
+                    zip.putNextEntry(new ZipEntry(entryName(report)));
+                    PdfCache.CachedPdf cached = pdfCache.get(PdfCache.key(report));
+                    if (cached != null) {
+                        cached.writeTo(zip);
+                    } else {
+                        if (owner == null) {
+                            owner = taxService.getReportOwner(report);
+                        }
+                        taxService.renderTaxReport(report, owner, zip);
+                    }
+                    zip.closeEntry();
+                }
+            } finally {
+                exportPermits.release();
+            }
+        };
+    }
+
+    private static String entryName(TaxReport report) {
+        String name = "tax-report-" + report.getFinancialYear() + "-" + report.getRegime() + "-" + report.getId();
+        return name.replaceAll("[^A-Za-z0-9._-]", "_") + ".pdf";
+    }
+}
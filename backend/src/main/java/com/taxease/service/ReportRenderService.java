@@ -0,0 +1,210 @@
+package com.taxease.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taxease.model.TaxReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders tax report PDFs on a dedicated, bounded worker pool so a burst of
+ * downloads cannot starve request threads. When the queue is full new work
+ * is rejected with 429 instead of piling up. Rendered files go to the
+ * {@link PdfCache}, so a repeat download is a report lookup plus a file send.
+ */
+@Service
+public class ReportRenderService {
+
+    public enum JobStatus {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    @Getter
+    public static class RenderJob {
+        private final String id;
+        private final String reportId;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.PENDING;
+        private volatile LocalDateTime completedAt;
+        private volatile String error;
+        // Cache key of the rendered file; downloads open it, or render again if it was evicted
+        private volatile String key;
+
+        RenderJob(String id, String reportId) {
+            this.id = id;
+            this.reportId = reportId;
+        }
+    }
+
+    @Autowired
+    private TaxService taxService;
+
+    @Autowired
+    private PdfCache pdfCache;
+    
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${pdf.render.workers:0}")
+    private int workers;
+
+    @Value("${pdf.render.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${pdf.jobs.max:1000}")
+    private long maxJobs;
+
+    @Value("${pdf.jobs.ttl-minutes:15}")
+    private long jobTtlMinutes;
+
+    private ThreadPoolExecutor executor;
+
+    private Cache<String, RenderJob> jobs;
+
+    // Concurrent misses for the same report share one render
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight =
+            new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int size = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        // Rendering is CPU-bound, so the pool stays sized to the cores even on virtual threads
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                workerThreads.factory("pdf-render"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "pdf-render", Tags.empty()).bindTo(meterRegistry);
+        jobs = Caffeine.newBuilder()
+                .maximumSize(maxJobs)
+                .expireAfterWrite(Duration.ofMinutes(jobTtlMinutes))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public CompletableFuture<PdfCache.CachedPdf> render(String reportId) {
+        TaxReport report = taxService.getTaxReport(reportId);
+        String key = PdfCache.key(report);
+        PdfCache.CachedPdf cached = pdfCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<Void> rendered = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(key, rendered);
+        if (existing != null) {
+            // Every waiter opens its own channel once the shared render is stored
+            return existing.thenApply(done -> openOrRender(key, report));
+        }
+        CompletableFuture<PdfCache.CachedPdf> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(pdfCache.put(key, taxService.renderTaxReport(report)));
+                    rendered.complete(null);
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                    rendered.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, rendered);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, rendered);
+            throw busy();
+        }
+        return future;
+    }
+
+    // Evicted between the shared render and this open: render again rather than fail the download
+    private PdfCache.CachedPdf openOrRender(String key, TaxReport report) {
+        PdfCache.CachedPdf pdf = pdfCache.get(key);
+        return pdf != null ? pdf : pdfCache.put(key, taxService.renderTaxReport(report));
+    }
+
+    public RenderJob submit(String reportId) {
+        RenderJob job = new RenderJob(UUID.randomUUID().toString(), reportId);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getId());
+            throw busy();
+        }
+        return job;
+    }
+
+    public RenderJob getJob(String jobId) {
+        RenderJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Render job not found");
+        }
+        return job;
+    }
+
+    public CompletableFuture<PdfCache.CachedPdf> getResult(String jobId) {
+        RenderJob job = getJob(jobId);
+        if (job.getStatus() == JobStatus.FAILED) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, job.getError());
+        }
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Render job is " + job.getStatus());
+        }
+        PdfCache.CachedPdf pdf = pdfCache.get(job.getKey());
+        if (pdf != null) {
+            return CompletableFuture.completedFuture(pdf);
+        }
+        // Evicted since the job finished
+        return render(job.getReportId());
+    }
+
+    private void run(RenderJob job) {
+        job.status = JobStatus.RUNNING;
+        try {
+            TaxReport report = taxService.getTaxReport(job.getReportId());
+            String key = PdfCache.key(report);
+            if (!pdfCache.contains(key)) {
+                pdfCache.put(key, taxService.renderTaxReport(report)).close();
+            }
+            job.key = key;
+            job.completedAt = LocalDateTime.now();
+            job.status = JobStatus.COMPLETED;
+        } catch (RuntimeException | IOException e) {
+            job.error = e.getMessage();
+            job.completedAt = LocalDateTime.now();
+            job.status = JobStatus.FAILED;
+        }
+    }
+
+    private ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "PDF rendering is at capacity, please retry shortly");
+    }
+}
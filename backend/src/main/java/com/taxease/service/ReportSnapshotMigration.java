@@ -0,0 +1,155 @@
+package com.taxease.service;
+
+import com.mongodb.DBRef;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.taxease.model.Investment;
+import com.taxease.model.TaxReport;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts reports that still hold {@code @DBRef} investments into embedded
+ * snapshots. Runs once in the background after startup, a batch at a time:
+ * each batch is one report query, one {@code $in} query for the referenced
+ * investments and one unordered bulk write. Batches walk the collection in
+ * {@code _id} order from the last id seen, so each one is a range scan on the
+ * {@code _id} index rather than a rescan of the reports already migrated.
+ */
+@Component
+public class ReportSnapshotMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportSnapshotMigration.class);
+
+    private static final String LEGACY_FIELD = "investments";
+    private static final String SNAPSHOT_FIELD = "investmentSnapshot";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Value("${tax.reports.snapshot-migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tax.reports.snapshot-migration.batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        workerThreads.factory("report-snapshot-migration").newThread(() -> {
+            try {
+                migrateAll();
+            } catch (RuntimeException e) {
+                log.error("Report snapshot migration stopped: {}", e.getMessage(), e);
+            }
+        }).start();
+    }
+
+    public long migrateAll() {
+        MongoCollection<Document> reports = mongoTemplate.getCollection(mongoTemplate.getCollectionName(TaxReport.class));
+        long migrated = 0;
+        Object lastId = null;
+        while (true) {
+            Bson filter = lastId == null
+                    ? Filters.exists(LEGACY_FIELD)
+                    : Filters.and(Filters.gt("_id", lastId), Filters.exists(LEGACY_FIELD));
+            List<Document> batch = reports.find(filter)
+                    .projection(Projections.include(LEGACY_FIELD))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).get("_id");
+
+            Map<String, Investment> investments = loadReferenced(batch);
+            List<WriteModel<Document>> writes = new ArrayList<>(batch.size());
+            for (Document report : batch) {
+                List<TaxReport.InvestmentSnapshot> snapshot = new ArrayList<>();
+                for (Object id : referencedIds(report)) {
+                    Investment investment = investments.get(id.toString());
+                    if (investment != null) {
+                        snapshot.add(TaxReport.InvestmentSnapshot.of(investment));
+                    }
+                }
+                writes.add(new UpdateOneModel<>(
+                        Filters.and(Filters.eq("_id", report.get("_id")), Filters.exists(LEGACY_FIELD)),
+                        Updates.combine(
+                                Updates.set(SNAPSHOT_FIELD, mongoTemplate.getConverter().convertToMongoType(snapshot)),
+                                Updates.unset(LEGACY_FIELD))));
+            }
+
+            // Reports converted concurrently (e.g. by another instance) match nothing here and are skipped
+            BulkWriteResult result = reports.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            if (result.getModifiedCount() == 0) {
+                continue;
+            }
+            migrated += result.getModifiedCount();
+            entityCache.evictAllReports();
+            log.debug("Migrated {} report snapshots so far", migrated);
+        }
+        if (migrated > 0) {
+            log.info("Migrated {} tax reports to embedded investment snapshots", migrated);
+        }
+        return migrated;
+    }
+
+    private Map<String, Investment> loadReferenced(List<Document> batch) {
+        Set<Object> ids = new LinkedHashSet<>();
+        for (Document report : batch) {
+            ids.addAll(referencedIds(report));
+        }
+        Map<String, Investment> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Investment investment : mongoTemplate.find(Query.query(Criteria.where("id").in(ids)), Investment.class)) {
+                byId.put(investment.getId(), investment);
+            }
+        }
+        return byId;
+    }
+
+    private static List<Object> referencedIds(Document report) {
+        List<Object> ids = new ArrayList<>();
+        if (report.get(LEGACY_FIELD) instanceof List<?> refs) {
+            for (Object ref : refs) {
+                if (ref instanceof DBRef dbRef) {
+                    ids.add(dbRef.getId());
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,140 @@
+package com.taxease.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent Mongo commands and HTTP requests that exceeded their
+ * threshold, one fixed-size ring per kind. Writers claim a slot with a single
+ * atomic increment and overwrite it, so recording never blocks a request;
+ * {@link #stats(int)} reads a snapshot and orders it slowest first.
+ */
+@Component
+public class SlowOperationRecorder {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SlowOperation(String name, String collection, String shape, String handler,
+                                Integer status, String error, double durationMs, LocalDateTime at) {}
+
+    private static final class Ring {
+        final AtomicReferenceArray<SlowOperation> slots;
+        final AtomicLong writes = new AtomicLong();
+
+        Ring(int capacity) {
+            slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+        }
+
+        void add(SlowOperation operation) {
+            slots.set((int) (writes.getAndIncrement() % slots.length()), operation);
+        }
+
+        List<SlowOperation> slowest(int limit) {
+            List<SlowOperation> snapshot = new ArrayList<>(slots.length());
+            for (int i = 0; i < slots.length(); i++) {
+                SlowOperation operation = slots.get(i);
+                if (operation != null) {
+                    snapshot.add(operation);
+                }
+            }
+            snapshot.sort(Comparator.comparingDouble(SlowOperation::durationMs).reversed());
+            return snapshot.subList(0, Math.min(Math.max(0, limit), snapshot.size()));
+        }
+
+        void clear() {
+            for (int i = 0; i < slots.length(); i++) {
+                slots.set(i, null);
+            }
+        }
+    }
+
+    // Controller method serving the current request thread, for attributing Mongo commands
+    private static final ThreadLocal<String> currentHandler = new ThreadLocal<>();
+
+    @Value("${diagnostics.slow-ops.enabled:true}")
+    private boolean enabled;
+
+    @Value("${diagnostics.slow-ops.mongo-threshold-ms:50}")
+    private long mongoThresholdMs;
+
+    @Value("${diagnostics.slow-ops.request-threshold-ms:250}")
+    private long requestThresholdMs;
+
+    @Value("${diagnostics.slow-ops.capacity:200}")
+    private int capacity;
+
+    private Ring commands;
+    private Ring requests;
+
+    @PostConstruct
+    public void init() {
+        commands = new Ring(capacity);
+        requests = new Ring(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void enterHandler(String handler) {
+        currentHandler.set(handler);
+    }
+
+    public void exitHandler() {
+        currentHandler.remove();
+    }
+
+    public String currentHandler() {
+        return currentHandler.get();
+    }
+
+    public void mongoCommand(String command, String collection, String shape, String handler,
+                             long elapsedNanos, String error) {
+        if (enabled && elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(mongoThresholdMs)) {
+            commands.add(new SlowOperation(command, collection, shape, handler, null, error,
+                    millis(elapsedNanos), LocalDateTime.now()));
+        }
+    }
+
+    public void request(String name, String handler, int status, long elapsedNanos) {
+        if (enabled && elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(requestThresholdMs)) {
+            requests.add(new SlowOperation(name, null, null, handler, status, null,
+                    millis(elapsedNanos), LocalDateTime.now()));
+        }
+    }
+
+    public Map<String, Object> stats(int limit) {
+        Map<String, Object> thresholds = new LinkedHashMap<>();
+        thresholds.put("mongoMs", mongoThresholdMs);
+        thresholds.put("requestMs", requestThresholdMs);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("thresholds", thresholds);
+        result.put("slowCommandsSeen", commands.writes.get());
+        result.put("slowRequestsSeen", requests.writes.get());
+        result.put("commands", commands.slowest(limit));
+        result.put("requests", requests.slowest(limit));
+        return result;
+    }
+
+    public void clear() {
+        commands.clear();
+        requests.clear();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
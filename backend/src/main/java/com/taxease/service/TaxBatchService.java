@@ -0,0 +1,215 @@
+package com.taxease.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streams tax calculations for NDJSON or JSON-array input. Rows are parsed
+ * and answered one at a time, so memory use does not grow with the batch.
+ */
+@Service
+public class TaxBatchService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String MALFORMED = "Malformed input: ";
+
+    @Autowired
+    private TaxService taxService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public long calculateBatch(InputStream in, OutputStream out) throws IOException {
+        long row = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(null);
+
+            try {
+                JsonToken token = parser.nextToken();
+                boolean array = token == JsonToken.START_ARRAY;
+                if (array) {
+                    token = parser.nextToken();
+                }
+                while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                    row++;
+                    if (token == JsonToken.START_OBJECT) {
+                        writeRow(parser, gen, row);
+                    } else {
+                        parser.skipChildren();
+                        writeError(gen, row, null, "Row must be a JSON object");
+                    }
+                    if (row % FLUSH_EVERY == 0) {
+                        gen.flush();
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                // Malformed input cannot be resynchronised; report it and stop.
+                writeError(gen, row, null, MALFORMED + e.getOriginalMessage());
+            }
+        }
+        return row;
+    }
+
+    private void writeRow(JsonParser parser, JsonGenerator gen, long row) throws IOException {
+        Row input = readRow(parser);
+        if (input.error() != null) {
+            writeError(gen, row, input.id(), input.error());
+            return;
+        }
+
+        double taxableIncome = input.income() - input.deductions();
+        double taxAmount = taxService.calculateTaxAmount(taxableIncome, input.regime(), input.financialYear());
+
+        gen.writeStartObject();
+        gen.writeNumberField("row", row);
+        if (input.id() != null) {
+            gen.writeStringField("id", input.id());
+        }
+        gen.writeNumberField("income", input.income());
+        gen.writeNumberField("deductions", input.deductions());
+        gen.writeNumberField("taxableIncome", taxableIncome);
+        gen.writeNumberField("taxAmount", taxAmount);
+        gen.writeStringField("regime", input.regime());
+        gen.writeNumberField("netIncome", input.income() - taxAmount);
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    /**
+     * One already-decoded row, as delivered by the reactive endpoint. The
+     * node is read with the same parser-driven validation as the streaming
+     * path, so both answer a row with the same fields and errors.
+     */
+    public Map<String, Object> calculateRow(long row, JsonNode node) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("row", row);
+        if (!node.isObject()) {
+            result.put("error", "Row must be a JSON object");
+            return result;
+        }
+
+        Row input;
+        try (JsonParser parser = node.traverse()) {
+            parser.nextToken();
+            input = readRow(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (input.id() != null) {
+            result.put("id", input.id());
+        }
+        if (input.error() != null) {
+            result.put("error", input.error());
+            return result;
+        }
+
+        double taxableIncome = input.income() - input.deductions();
+        double taxAmount = taxService.calculateTaxAmount(taxableIncome, input.regime(), input.financialYear());
+
+        result.put("income", input.income());
+        result.put("deductions", input.deductions());
+        result.put("taxableIncome", taxableIncome);
+        result.put("taxAmount", taxAmount);
+        result.put("regime", input.regime());
+        result.put("netIncome", input.income() - taxAmount);
+        return result;
+    }
+
+    /** The error line that ends a reactive batch whose input stopped decoding. */
+    public Map<String, Object> malformedRow(long row, Throwable error) {
+        Throwable cause = error;
+        while (cause != null && !(cause instanceof JsonProcessingException)) {
+            cause = cause.getCause();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("row", row);
+        result.put("error", MALFORMED + (cause != null
+                ? ((JsonProcessingException) cause).getOriginalMessage()
+                : error.getMessage()));
+        return result;
+    }
+
+    private record Row(String id, String regime, String financialYear, double income, double deductions,
+                       String error) {}
+
+    /** Reads the fields of one row object; the parser is left on its END_OBJECT. */
+    private static Row readRow(JsonParser parser) throws IOException {
+        String id = null;
+        String regime = null;
+        String financialYear = null;
+        double income = Double.NaN;
+        double deductions = 0;
+        String error = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                // Skip the whole nested value, or its fields would be read as this row's
+                parser.skipChildren();
+                String expected = switch (field) {
+                    case "income", "deductions" -> "a number";
+                    case "id", "regime", "financialYear" -> "a string";
+                    default -> null;
+                };
+                if (expected != null) {
+                    error = field + " must be " + expected;
+                }
+                continue;
+            }
+            switch (field) {
+                case "id" -> id = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                case "regime" -> regime = parser.getValueAsString();
+                case "financialYear" -> financialYear = parser.getValueAsString();
+                case "income" -> {
+                    if (value.isNumeric()) {
+                        income = parser.getDoubleValue();
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        error = "income must be a number";
+                    }
+                }
+                case "deductions" -> {
+                    if (value.isNumeric()) {
+                        deductions = parser.getDoubleValue();
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        error = "deductions must be a number";
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (error == null && Double.isNaN(income)) {
+            error = "income is required";
+        }
+        return new Row(id, regime, financialYear, income, deductions, error);
+    }
+
+    private void writeError(JsonGenerator gen, long row, String id, String message) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("row", row);
+        if (id != null) {
+            gen.writeStringField("id", id);
+        }
+        gen.writeStringField("error", message);
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+}
@@ -0,0 +1,328 @@
+package com.taxease.service;
+
+import com.taxease.dto.OptimizerDTO;
+import com.taxease.model.User.TaxRegime;
+import com.taxease.model.UserInvestment;
+import com.taxease.model.UserInvestment.Section;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compares both regimes and picks the set of candidate investments that
+ * minimises old-regime tax under a budget. Chapter VI-A deductions only
+ * reduce old-regime income, so the new regime is evaluated on gross income.
+ */
+@Service
+public class TaxOptimizerService {
+
+    // The search keeps its chosen set in a long bitmask
+    private static final int MAX_CANDIDATES = 64;
+
+    // Hard ceiling on visited nodes so a pathological request stays within a few ms
+    private static final long MAX_NODES = 50_000;
+
+    private static final double EPS = 1e-6;
+
+    @Autowired
+    private TaxSlabEngine taxSlabEngine;
+
+    @Autowired
+    private WalletService walletService;
+
+    public OptimizerDTO.OptimizeResult optimize(OptimizerDTO.OptimizeRequest request) {
+        if (request.getIncome() == null || request.getIncome() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Income is required");
+        }
+        if (request.getBudget() == null || request.getBudget() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Budget is required");
+        }
+        List<OptimizerDTO.Candidate> candidates = request.getCandidates() != null
+                ? request.getCandidates() : List.of();
+        if (candidates.size() > MAX_CANDIDATES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_CANDIDATES + " candidates are supported");
+        }
+
+        String financialYear = request.getFinancialYear();
+        double income = request.getIncome();
+        double budget = request.getBudget();
+
+        // Remaining deduction headroom per section after what the wallet already holds
+        Section[] sections = Section.values();
+        double[] headroom = new double[sections.length];
+        for (Section s : sections) {
+            double limit = WalletService.getSectionLimit(s);
+            headroom[s.ordinal()] = limit > 0 ? limit : Double.POSITIVE_INFINITY;
+        }
+        double existing = 0;
+        if (request.getUserId() != null && financialYear != null && !financialYear.isBlank()) {
+            for (UserInvestment ui : walletService.getWallet(request.getUserId(), financialYear)) {
+                int s = ui.getSection().ordinal();
+                double applied = Math.min(ui.getInvested() != null ? ui.getInvested() : 0.0, headroom[s]);
+                existing += applied;
+                headroom[s] -= applied;
+            }
+        }
+
+        int n = candidates.size();
+        int[] section = new int[n];
+        double[] amount = new double[n];
+        boolean[] divisible = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            OptimizerDTO.Candidate c = candidates.get(i);
+            try {
+                section[i] = Section.fromValue(c.getSection()).ordinal();
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+            }
+            if (c.getAmount() == null || c.getAmount() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Candidate amount must be greater than 0");
+            }
+            amount[i] = c.getAmount();
+            divisible[i] = c.isDivisible();
+        }
+
+        TaxSlabTable oldTable = taxSlabEngine.table(financialYear, TaxRegime.OLD);
+        TaxSlabTable newTable = taxSlabEngine.table(financialYear, TaxRegime.NEW);
+
+        // Deductions that push taxable income below the zero-rate band save nothing
+        double zeroBand = oldTable.size() > 1 && oldTable.rate(0) == 0 ? oldTable.lowerBound(1) : 0;
+        double usefulCap = Math.max(0, income - existing - zeroBand);
+
+        Search search = new Search(section, amount, divisible, headroom, budget, usefulCap);
+        search.run();
+        double[] funded = search.fundedAmounts();
+
+        List<OptimizerDTO.PlanItem> plan = new ArrayList<>();
+        double[] used = new double[sections.length];
+        double planSpend = 0;
+        double planDeduction = 0;
+        for (int i = 0; i < n; i++) {
+            if (funded[i] <= 0) {
+                continue;
+            }
+            int s = section[i];
+            double deduction = Math.min(funded[i], Math.max(0, headroom[s] - used[s]));
+            used[s] += funded[i];
+            planSpend += funded[i];
+            planDeduction += deduction;
+
+            plan.add(new OptimizerDTO.PlanItem(candidates.get(i).getName(), sections[s].getValue(),
+                    funded[i], deduction));
+        }
+
+        double baselineOldTax = oldTable.taxOn(income - existing);
+        double oldDeductions = existing + planDeduction;
+        double oldTax = oldTable.taxOn(income - oldDeductions);
+        double newTax = newTable.taxOn(income);
+        boolean oldWins = oldTax < newTax;
+
+        return new OptimizerDTO.OptimizeResult(
+                financialYear != null ? financialYear : taxSlabEngine.defaultYear(),
+                income, budget, existing,
+                new OptimizerDTO.RegimeResult(oldDeductions, income - oldDeductions, oldTax),
+                new OptimizerDTO.RegimeResult(0.0, income, newTax),
+                oldWins ? TaxRegime.OLD.getValue() : TaxRegime.NEW.getValue(),
+                plan, planSpend,
+                Math.min(baselineOldTax, newTax) - Math.min(oldTax, newTax),
+                search.exhaustive);
+    }
+
+    /**
+     * Branch and bound over indivisible candidates, largest first. Every node
+     * is a feasible plan: divisible candidates then fill the remaining budget
+     * greedily, which is optimal because each rupee of headroom is worth one
+     * rupee of deduction. Ties on deduction prefer the smaller spend.
+     */
+    private static final class Search {
+
+        private final int[] section;
+        private final double[] amount;
+        private final double[] headroom;
+        private final double budget;
+        private final double usefulCap;
+
+        private final int[] order;            // indivisible candidates, amount descending
+        private final double[][] suffix;      // suffix[i][s]: indivisible amount in s from order[i..]
+        private final double[] divisibleTotal; // divisible amount available per section
+        private final int[] divisibleIdx;
+        private final double[] used;
+
+        private long bestMask;
+        private double bestValue = -1;
+        private double bestSpend = Double.POSITIVE_INFINITY;
+        private long nodes;
+        private boolean exhaustive = true;
+        private double rootBound;
+        private boolean done;
+
+        Search(int[] section, double[] amount, boolean[] divisible,
+               double[] headroom, double budget, double usefulCap) {
+            this.section = section;
+            this.amount = amount;
+            this.headroom = headroom;
+            this.budget = budget;
+            this.usefulCap = usefulCap;
+            this.used = new double[headroom.length];
+            this.divisibleTotal = new double[headroom.length];
+
+            int n = section.length;
+            List<Integer> indivisible = new ArrayList<>();
+            List<Integer> divisibleList = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if (divisible[i]) {
+                    divisibleList.add(i);
+                    divisibleTotal[section[i]] += amount[i];
+                } else {
+                    indivisible.add(i);
+                }
+            }
+            indivisible.sort(Comparator.comparingDouble((Integer i) -> amount[i]).reversed());
+            this.order = indivisible.stream().mapToInt(Integer::intValue).toArray();
+            this.divisibleIdx = divisibleList.stream().mapToInt(Integer::intValue).toArray();
+
+            this.suffix = new double[order.length + 1][headroom.length];
+            for (int k = order.length - 1; k >= 0; k--) {
+                System.arraycopy(suffix[k + 1], 0, suffix[k], 0, headroom.length);
+                suffix[k][section[order[k]]] += amount[order[k]];
+            }
+        }
+
+        void run() {
+            rootBound = bound(0, 0, 0);
+            seed();
+            dfs(0, 0, 0, 0L);
+        }
+
+        // Largest-first greedy that never buys capped-out headroom, so the
+        // search starts from a strong incumbent and prunes from the first node.
+        private void seed() {
+            double spend = 0;
+            double value = 0;
+            long mask = 0;
+            for (int i : order) {
+                int s = section[i];
+                if (spend + amount[i] <= budget + EPS && amount[i] <= headroom[s] - used[s] + EPS) {
+                    used[s] += amount[i];
+                    spend += amount[i];
+                    value += amount[i];
+                    mask |= 1L << i;
+                }
+            }
+            evaluate(spend, value, mask);
+            Arrays.fill(used, 0);
+        }
+
+        private void dfs(int k, double spend, double value, long mask) {
+            if (done) {
+                return;
+            }
+            if (++nodes > MAX_NODES) {
+                exhaustive = false;
+                done = true;
+                return;
+            }
+            evaluate(spend, value, mask);
+            // Spend can never be below the deduction it buys, so a plan that reaches
+            // the root bound without waste cannot be beaten.
+            if (bestValue >= rootBound - EPS && bestSpend <= bestValue + EPS) {
+                done = true;
+                return;
+            }
+            if (k == order.length || (bestValue >= usefulCap - EPS && spend >= bestSpend)) {
+                return;
+            }
+            double bound = bound(k, spend, value);
+            if (bound < bestValue - EPS || (bound < bestValue + EPS && spend >= bestSpend)) {
+                return;
+            }
+
+            int i = order[k];
+            int s = section[i];
+            double gain = Math.min(amount[i], Math.max(0, headroom[s] - used[s]));
+            if (gain > 0 && spend + amount[i] <= budget + EPS) {
+                used[s] += amount[i];
+                dfs(k + 1, spend + amount[i], value + gain, mask | (1L << i));
+                used[s] -= amount[i];
+            }
+
+            // Skipping this candidate also skips its identical twins; taking a later
+            // twin instead would only revisit the same plans.
+            int next = k + 1;
+            while (next < order.length
+                    && section[order[next]] == s
+                    && amount[order[next]] == amount[i]) {
+                next++;
+            }
+            dfs(next, spend, value, mask);
+        }
+
+        private double bound(int k, double spend, double value) {
+            double reachable = 0;
+            for (int s = 0; s < headroom.length; s++) {
+                double room = headroom[s] - used[s];
+                if (room > 0) {
+                    reachable += Math.min(room, suffix[k][s] + divisibleTotal[s]);
+                }
+            }
+            return Math.min(usefulCap, value + Math.min(budget - spend, reachable));
+        }
+
+        private void evaluate(double spend, double value, long mask) {
+            double fill = 0;
+            for (int s = 0; s < headroom.length; s++) {
+                double room = headroom[s] - used[s];
+                if (room > 0) {
+                    fill += Math.min(room, divisibleTotal[s]);
+                }
+            }
+            fill = Math.min(fill, budget - spend);
+            double total = Math.min(value + fill, Math.max(value, usefulCap));
+            double totalSpend = spend + Math.max(0, total - value);
+            // Deduction past the zero-rate band saves nothing, so it must not outweigh a cheaper plan
+            double worth = Math.min(total, usefulCap);
+
+            if (worth > bestValue + EPS || (worth > bestValue - EPS && totalSpend < bestSpend - EPS)) {
+                bestValue = worth;
+                bestSpend = totalSpend;
+                bestMask = mask;
+            }
+        }
+
+        double[] fundedAmounts() {
+            double[] funded = new double[section.length];
+            Arrays.fill(used, 0);
+            double spend = 0;
+            double value = 0;
+            for (int i = 0; i < section.length; i++) {
+                if ((bestMask & (1L << i)) != 0) {
+                    funded[i] = amount[i];
+                    value += Math.min(amount[i], Math.max(0, headroom[section[i]] - used[section[i]]));
+                    used[section[i]] += amount[i];
+                    spend += amount[i];
+                }
+            }
+            double toFill = Math.min(budget - spend, Math.max(0, Math.max(value, usefulCap) - value));
+            for (int i : divisibleIdx) {
+                if (toFill <= 0) {
+                    break;
+                }
+                int s = section[i];
+                double take = Math.min(amount[i], Math.min(toFill, Math.max(0, headroom[s] - used[s])));
+                if (take > 0) {
+                    funded[i] = take;
+                    used[s] += take;
+                    toFill -= take;
+                }
+            }
+            return funded;
+        }
+    }
+}
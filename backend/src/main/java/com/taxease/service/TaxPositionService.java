@@ -0,0 +1,281 @@
+package com.taxease.service;
+
+import com.taxease.model.Income;
+import com.taxease.model.Investment;
+import com.taxease.model.TaxPosition;
+import com.taxease.model.TaxReport;
+import com.taxease.model.User.TaxRegime;
+import com.taxease.model.UserInvestment;
+import com.taxease.model.UserInvestment.Section;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AccumulatorOperators;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maintains the {@link TaxPosition} read model. Source services report each
+ * change as a delta ($inc) or, for wallet sections, the new absolute total;
+ * the derived deductions and per-regime tax are then recomputed from the
+ * returned document and written only if no newer change has landed since.
+ * A failed position write never fails the source write: it is logged, and
+ * {@link #rebuildAll()} recomputes everything from the source collections.
+ */
+@Service
+public class TaxPositionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaxPositionService.class);
+
+    private record Key(String userId, String financialYear) {}
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TaxSlabEngine taxSlabEngine;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Value("${tax.positions.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    public TaxPosition getPosition(String userId, String financialYear) {
+        if (financialYear == null || financialYear.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Financial year is required");
+        }
+        TaxPosition position = mongoTemplate.findById(TaxPosition.idOf(userId, financialYear), TaxPosition.class);
+        // Positions are backfilled lazily for data written before the read model existed
+        return position != null ? position : rebuild(new Key(userId, financialYear));
+    }
+
+    public void incomeChanged(String userId, String financialYear, double delta) {
+        if (delta != 0) {
+            apply(userId, financialYear, new Update().inc("totalIncome", delta));
+        }
+    }
+
+    public void investmentChanged(String userId, String financialYear, Investment.TaxSection section, double delta) {
+        if (section != null && delta != 0) {
+            apply(userId, financialYear, new Update().inc("investments." + section.name(), delta));
+        }
+    }
+
+    public void walletSectionChanged(String userId, String financialYear, Section section, double invested) {
+        if (section != null) {
+            apply(userId, financialYear, new Update().set("wallet." + section.name(), invested));
+        }
+    }
+
+    public void reportGenerated(String userId, String financialYear) {
+        apply(userId, financialYear, new Update().inc("reportCount", 1));
+    }
+
+    /**
+     * Recomputes every position from incomes, investments, wallet sections and
+     * reports, one (userId, financialYear) per task on a fixed pool. Changes
+     * that land while a key is being recomputed can be overwritten, so run it
+     * when writes are quiet.
+     */
+    public Map<String, Object> rebuildAll() {
+        long started = System.nanoTime();
+        Set<Key> keys = new LinkedHashSet<>();
+        collectKeys(Income.class, keys);
+        collectKeys(Investment.class, keys);
+        collectKeys(UserInvestment.class, keys);
+        collectKeys(TaxReport.class, keys);
+
+        AtomicInteger rebuilt = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        // Parallelism bounds the load on Mongo, whichever kind of thread runs the tasks
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, rebuildParallelism),
+                workerThreads.factory("position-rebuild"));
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>(keys.size());
+            for (Key key : keys) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        rebuild(key);
+                        rebuilt.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.warn("Could not rebuild tax position {}: {}", key, e.getMessage());
+                    }
+                }, pool));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("positions", keys.size());
+        result.put("rebuilt", rebuilt.get());
+        result.put("failed", failed.get());
+        result.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    /** Recomputes one position from source, e.g. when its deltas may have been lost. */
+    public TaxPosition rebuild(String userId, String financialYear) {
+        return rebuild(new Key(userId, financialYear));
+    }
+
+    private TaxPosition rebuild(Key key) {
+        Criteria owner = Criteria.where("userId").is(key.userId()).and("financialYear").is(key.financialYear());
+
+        double totalIncome = 0;
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(Income.class,
+                Aggregation.match(owner),
+                Aggregation.group().sum("totalIncome").as("total")), Document.class)) {
+            totalIncome = number(row.get("total"));
+        }
+
+        Map<Investment.TaxSection, Double> investments = new EnumMap<>(Investment.TaxSection.class);
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(Investment.class,
+                Aggregation.match(owner),
+                Aggregation.group("section").sum("amount").as("amount")), Document.class)) {
+            if (row.get("_id") != null) {
+                investments.put(Investment.TaxSection.valueOf(row.get("_id").toString()), number(row.get("amount")));
+            }
+        }
+
+        Map<Section, Double> wallet = new EnumMap<>(Section.class);
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(UserInvestment.class,
+                Aggregation.match(owner),
+                Aggregation.project("section").and(AccumulatorOperators.Sum.sumOf("slots.amount")).as("invested"),
+                Aggregation.group("section").sum("invested").as("invested")), Document.class)) {
+            if (row.get("_id") != null) {
+                wallet.put(Section.valueOf(row.get("_id").toString()), number(row.get("invested")));
+            }
+        }
+
+        long reportCount = mongoTemplate.count(Query.query(owner), TaxReport.class);
+
+        return write(key.userId(), key.financialYear(), new Update()
+                .set("totalIncome", totalIncome)
+                .set("investments", investments)
+                .set("wallet", wallet)
+                .set("reportCount", reportCount));
+    }
+
+    private void apply(String userId, String financialYear, Update changes) {
+        if (userId == null || financialYear == null) {
+            return;
+        }
+        try {
+            write(userId, financialYear, changes);
+        } catch (RuntimeException e) {
+            log.warn("Tax position {} not updated, run a rebuild to reconcile: {}",
+                    TaxPosition.idOf(userId, financialYear), e.getMessage());
+        }
+    }
+
+    private TaxPosition write(String userId, String financialYear, Update changes) {
+        String id = TaxPosition.idOf(userId, financialYear);
+        changes.inc("version", 1)
+                .setOnInsert("userId", userId)
+                .setOnInsert("financialYear", financialYear);
+        TaxPosition position = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)), changes,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), TaxPosition.class);
+        derive(position);
+
+        // A newer change recomputes from its own snapshot, so a lost race here is harmless
+        Update derived = new Update()
+                .set("deductions", position.getDeductions())
+                .set("totalDeductions", position.getTotalDeductions())
+                .set("oldRegime", position.getOldRegime())
+                .set("newRegime", position.getNewRegime())
+                .set("recommendedRegime", position.getRecommendedRegime())
+                .set("updatedAt", position.getUpdatedAt());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(id).and("version").is(position.getVersion())),
+                derived, TaxPosition.class);
+        return position;
+    }
+
+    // Old regime taxes income net of capped deductions; the new regime ignores them
+    private void derive(TaxPosition position) {
+        Map<Section, Double> deductions = new EnumMap<>(Section.class);
+        if (position.getInvestments() != null) {
+            position.getInvestments().forEach((section, amount) -> {
+                Section target = deductionSection(section);
+                if (target != null && amount != null) {
+                    deductions.merge(target, amount, Double::sum);
+                }
+            });
+        }
+        if (position.getWallet() != null) {
+            position.getWallet().forEach((section, amount) -> {
+                if (amount != null) {
+                    deductions.merge(section, amount, Double::sum);
+                }
+            });
+        }
+
+        double totalDeductions = 0;
+        for (Map.Entry<Section, Double> entry : deductions.entrySet()) {
+            double limit = WalletService.getSectionLimit(entry.getKey());
+            double applied = Math.max(0, limit > 0 ? Math.min(entry.getValue(), limit) : entry.getValue());
+            entry.setValue(applied);
+            totalDeductions += applied;
+        }
+
+        String financialYear = position.getFinancialYear();
+        double income = position.getTotalIncome() != null ? position.getTotalIncome() : 0.0;
+        double oldTaxable = Math.max(0, income - totalDeductions);
+        double oldTax = taxSlabEngine.taxOn(financialYear, TaxRegime.OLD, oldTaxable);
+        double newTax = taxSlabEngine.taxOn(financialYear, TaxRegime.NEW, income);
+
+        position.setDeductions(deductions);
+        position.setTotalDeductions(totalDeductions);
+        position.setOldRegime(new TaxPosition.RegimeTax(oldTaxable, oldTax));
+        position.setNewRegime(new TaxPosition.RegimeTax(income, newTax));
+        position.setRecommendedRegime(oldTax < newTax ? TaxRegime.OLD.getValue() : TaxRegime.NEW.getValue());
+        position.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void collectKeys(Class<?> source, Set<Key> keys) {
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(source,
+                Aggregation.group("userId", "financialYear")), Document.class)) {
+            Document id = row.get("_id", Document.class);
+            if (id != null && id.getString("userId") != null && id.getString("financialYear") != null) {
+                keys.add(new Key(id.getString("userId"), id.getString("financialYear")));
+            }
+        }
+    }
+
+    // Investment sections map onto wallet sections by their statutory name; OTHER is not a deduction
+    private static Section deductionSection(Investment.TaxSection section) {
+        if (section == null || section == Investment.TaxSection.OTHER) {
+            return null;
+        }
+        return Section.fromValue(section.getValue());
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number n ? n.doubleValue() : 0.0;
+    }
+}
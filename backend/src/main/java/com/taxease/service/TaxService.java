@@ -4,6 +4,8 @@ import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Paragraph;
+import com.taxease.dto.PageDTO;
+import com.taxease.dto.TaxDTO;
 import com.taxease.model.Income;
 import com.taxease.model.Investment;
 import com.taxease.model.TaxReport;
@@ -11,14 +13,21 @@ import com.taxease.model.User;
 import com.taxease.repository.IncomeRepository;
 import com.taxease.repository.InvestmentRepository;
 import com.taxease.repository.TaxReportRepository;
-import com.taxease.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TaxService {
@@ -33,37 +42,56 @@ public class TaxService {
     private InvestmentRepository investmentRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private TaxSlabEngine taxSlabEngine;
     
-    public Map<String, Object> calculateTax(Double income, String regime, Double deductions) {
-        double taxableIncome = income - (deductions != null ? deductions : 0);
-        double taxAmount = calculateTaxAmount(taxableIncome, regime);
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("income", income);
-        result.put("deductions", deductions != null ? deductions : 0);
-        result.put("taxableIncome", taxableIncome);
-        result.put("taxAmount", taxAmount);
-        result.put("regime", regime);
-        result.put("netIncome", income - taxAmount);
-        
-        return result;
+    @Autowired
+    private TaxPositionService taxPositionService;
+    
+    @Autowired
+    private KeysetPager keysetPager;
+    
+    @Autowired
+    private EntityCache entityCache;
+    
+    @Autowired
+    private DataVersions dataVersions;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer renderTimer;
+    private DistributionSummary pdfSize;
+    
+    @PostConstruct
+    void init() {
+        renderTimer = Timer.builder("taxease.pdf.render")
+                .description("Time to lay out one tax report PDF")
+                .register(meterRegistry);
+        pdfSize = DistributionSummary.builder("taxease.pdf.size")
+                .description("Size of rendered tax report PDFs")
+                .baseUnit("bytes")
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(10.0 * 1024 * 1024)
+                .register(meterRegistry);
     }
     
-    private double calculateTaxAmount(double income, String regime) {
-        if ("new".equalsIgnoreCase(regime)) {
-            if (income <= 300000) return 0;
-            if (income <= 600000) return (income - 300000) * 0.05;
-            if (income <= 900000) return 15000 + (income - 600000) * 0.10;
-            if (income <= 1200000) return 45000 + (income - 900000) * 0.15;
-            if (income <= 1500000) return 90000 + (income - 1200000) * 0.20;
-            return 150000 + (income - 1500000) * 0.30;
-        } else {
-            if (income <= 250000) return 0;
-            if (income <= 500000) return (income - 250000) * 0.05;
-            if (income <= 1000000) return 12500 + (income - 500000) * 0.20;
-            return 112500 + (income - 1000000) * 0.30;
+    public TaxDTO.CalculateResult calculateTax(Double income, String regime, Double deductions) {
+        return calculateTax(income, regime, deductions, null);
+    }
+    
+    public TaxDTO.CalculateResult calculateTax(Double income, String regime, Double deductions, String financialYear) {
+        if (income == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "income is required");
         }
+        double deducted = deductions != null ? deductions : 0;
+        double taxableIncome = income - deducted;
+        double taxAmount = calculateTaxAmount(taxableIncome, regime, financialYear);
+        
+        return new TaxDTO.CalculateResult(income, deducted, taxableIncome, taxAmount, regime, income - taxAmount);
+    }
+    
+    public double calculateTaxAmount(double income, String regime, String financialYear) {
+        return taxSlabEngine.taxOn(financialYear, TaxSlabEngine.regimeOf(regime), income);
     }
     
     public TaxReport generateTaxReport(String userId, String financialYear, String regime) {
@@ -83,7 +111,7 @@ public class TaxService {
         
         // Calculate tax
         double taxableIncome = incomeData.getTotalIncome() - totalDeductions;
-        double taxAmount = calculateTaxAmount(taxableIncome, regime);
+        double taxAmount = calculateTaxAmount(taxableIncome, regime, financialYear);
         
         // Create report
         TaxReport report = new TaxReport();
@@ -101,26 +129,59 @@ public class TaxService {
         breakdown.setHealthInsurance(350.0);
         report.setTaxBreakdown(breakdown);
         
-        report.setInvestments(investments);
+        report.setInvestments(TaxReport.InvestmentSnapshot.of(investments));
         
-        return taxReportRepository.save(report);
+        TaxReport saved = taxReportRepository.save(report);
+        entityCache.evictReport(saved.getId(), userId);
+        taxPositionService.reportGenerated(userId, financialYear);
+        dataVersions.changed(userId, DataVersions.Scope.REPORTS);
+        return saved;
+    }
+    
+    // Newest first, written straight from the cursor as a JSON array
+    public StreamingResponseBody streamTaxReports(String userId) {
+        return keysetPager.stream(Criteria.where("userId").is(userId), TaxReport.class);
+    }
+    
+    // version is the REPORTS data version (the listing ETag) read before the page
+    public PageDTO<TaxReport> getTaxReportPage(String userId, String cursor, Integer limit, String version) {
+        if ((cursor == null || cursor.isBlank()) && limit == null) {
+            // The dashboard opens on the default first page, so that one is cached
+            return entityCache.firstReportPage(userId, version, () -> loadTaxReportPage(userId, null, null));
+        }
+        return loadTaxReportPage(userId, cursor, limit);
     }
     
-    public List<TaxReport> getTaxReports(String userId) {
-        return taxReportRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    private PageDTO<TaxReport> loadTaxReportPage(String userId, String cursor, Integer limit) {
+        return keysetPager.page(Criteria.where("userId").is(userId), TaxReport.class, cursor, limit,
+                TaxReport::getCreatedAt, TaxReport::getId);
     }
     
     @SuppressWarnings("null")
-    public byte[] downloadTaxReport(String reportId) {
-        TaxReport report = taxReportRepository.findById(reportId)
+    public TaxReport getTaxReport(String reportId) {
+        return entityCache.findReport(reportId)
                 .orElseThrow(() -> new RuntimeException("Report not found"));
-        
-        User user = userRepository.findById(report.getUserId())
+    }
+    
+    @SuppressWarnings("null")
+    public User getReportOwner(TaxReport report) {
+        return entityCache.findUser(report.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    }
+    
+    public byte[] renderTaxReport(TaxReport report) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        renderTaxReport(report, getReportOwner(report), baos);
+        pdfSize.record(baos.size());
+        return baos.toByteArray();
+    }
+    
+    // Writes the PDF to out and leaves it open, so callers can render into a ZIP entry
+    public void renderTaxReport(TaxReport report, User user, OutputStream out) {
+        long started = System.nanoTime();
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
+            PdfWriter writer = new PdfWriter(out);
+            writer.setCloseStream(false);
             PdfDocument pdfDoc = new PdfDocument(writer);
             Document document = new Document(pdfDoc);
             
@@ -152,7 +213,7 @@ public class TaxService {
             if (report.getInvestments() != null && !report.getInvestments().isEmpty()) {
                 document.add(new Paragraph("\nInvestments").setFontSize(16).setBold());
                 int i = 1;
-                for (Investment inv : report.getInvestments()) {
+                for (TaxReport.InvestmentSnapshot inv : report.getInvestments()) {
                     document.add(new Paragraph(i + ". " + inv.getType() + " - ₹" + 
                             String.format("%,.2f", inv.getAmount()) + " (Section " + inv.getSection().getValue() + ")"));
                     i++;
@@ -166,8 +227,7 @@ public class TaxService {
                     .setFontSize(10));
             
             document.close();
-            
-            return baos.toByteArray();
+            renderTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         } catch (Exception e) {
             throw new RuntimeException("Error generating PDF: " + e.getMessage());
         }
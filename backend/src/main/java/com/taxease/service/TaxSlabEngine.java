@@ -0,0 +1,108 @@
+package com.taxease.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taxease.model.User.TaxRegime;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Slab tables keyed by financial year and regime, loaded from
+ * {@code tax.slabs.location}. Unknown or missing years resolve to the
+ * configured default year. {@link #reload()} swaps in a new snapshot only
+ * after the whole file parses, so a bad edit leaves the current tables in use.
+ */
+@Component
+public class TaxSlabEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TaxSlabEngine.class);
+
+    private record Snapshot(Map<String, TaxSlabTable[]> byYear, String defaultYear, TaxSlabTable[] defaults) {}
+
+    @Value("${tax.slabs.location:classpath:tax-slabs.json}")
+    private Resource location;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void reload() {
+        try (InputStream in = location.getInputStream()) {
+            snapshot = parse(objectMapper.readTree(in));
+            log.info("Loaded tax slabs for {} financial years (default {})",
+                    snapshot.byYear().size(), snapshot.defaultYear());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load tax slabs from " + location, e);
+        }
+    }
+
+    public static TaxRegime regimeOf(String regime) {
+        return "new".equalsIgnoreCase(regime) ? TaxRegime.NEW : TaxRegime.OLD;
+    }
+
+    public TaxSlabTable table(String financialYear, TaxRegime regime) {
+        Snapshot s = snapshot;
+        TaxSlabTable[] tables = financialYear != null ? s.byYear().get(financialYear) : null;
+        return (tables != null ? tables : s.defaults())[regime.ordinal()];
+    }
+
+    public double taxOn(String financialYear, TaxRegime regime, double taxableIncome) {
+        return table(financialYear, regime).taxOn(taxableIncome);
+    }
+
+    public String defaultYear() {
+        return snapshot.defaultYear();
+    }
+
+    public boolean supports(String financialYear) {
+        return snapshot.byYear().containsKey(financialYear);
+    }
+
+    private static Snapshot parse(JsonNode root) {
+        JsonNode years = root.path("years");
+        Map<String, TaxSlabTable[]> byYear = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> it = years.fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> year = it.next();
+            TaxSlabTable[] tables = new TaxSlabTable[TaxRegime.values().length];
+            for (TaxRegime regime : TaxRegime.values()) {
+                JsonNode slabs = year.getValue().path(regime.getValue());
+                if (!slabs.isArray() || slabs.isEmpty()) {
+                    throw new IllegalStateException("Missing " + regime.getValue()
+                            + " regime slabs for FY " + year.getKey());
+                }
+                double[] bounds = new double[slabs.size()];
+                double[] rates = new double[slabs.size()];
+                for (int i = 0; i < slabs.size(); i++) {
+                    bounds[i] = slabs.get(i).path("from").asDouble();
+                    rates[i] = slabs.get(i).path("rate").asDouble();
+                }
+                try {
+                    tables[regime.ordinal()] = new TaxSlabTable(bounds, rates);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalStateException("Invalid " + regime.getValue()
+                            + " regime slabs for FY " + year.getKey() + ": " + e.getMessage());
+                }
+            }
+            byYear.put(year.getKey(), tables);
+        }
+
+        String defaultYear = root.path("defaultYear").asText(null);
+        TaxSlabTable[] defaults = defaultYear != null ? byYear.get(defaultYear) : null;
+        if (defaults == null) {
+            throw new IllegalStateException("Default financial year " + defaultYear + " has no slab table");
+        }
+        return new Snapshot(Map.copyOf(byYear), defaultYear, defaults);
+    }
+}
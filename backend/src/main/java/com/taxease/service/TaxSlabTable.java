@@ -0,0 +1,56 @@
+package com.taxease.service;
+
+import java.util.Arrays;
+
+/**
+ * Immutable progressive slab table for one financial year and regime.
+ * Cumulative tax at every slab boundary is precomputed, so a lookup is a
+ * binary search plus one multiply.
+ */
+public final class TaxSlabTable {
+
+    private final double[] lowerBounds;
+    private final double[] rates;
+    private final double[] baseTax;
+
+    public TaxSlabTable(double[] lowerBounds, double[] rates) {
+        if (lowerBounds.length == 0 || lowerBounds.length != rates.length) {
+            throw new IllegalArgumentException("Slab bounds and rates must be non-empty and of equal length");
+        }
+        if (lowerBounds[0] != 0) {
+            throw new IllegalArgumentException("First slab must start at 0");
+        }
+        this.lowerBounds = lowerBounds.clone();
+        this.rates = rates.clone();
+        this.baseTax = new double[lowerBounds.length];
+        for (int i = 1; i < lowerBounds.length; i++) {
+            if (lowerBounds[i] <= lowerBounds[i - 1]) {
+                throw new IllegalArgumentException("Slab bounds must be strictly ascending");
+            }
+            baseTax[i] = baseTax[i - 1] + (lowerBounds[i] - lowerBounds[i - 1]) * rates[i - 1];
+        }
+    }
+
+    public double taxOn(double taxableIncome) {
+        if (taxableIncome <= 0) {
+            return 0;
+        }
+        int i = Arrays.binarySearch(lowerBounds, taxableIncome);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        return baseTax[i] + (taxableIncome - lowerBounds[i]) * rates[i];
+    }
+
+    public int size() {
+        return lowerBounds.length;
+    }
+
+    public double lowerBound(int slab) {
+        return lowerBounds[slab];
+    }
+
+    public double rate(int slab) {
+        return rates[slab];
+    }
+}
@@ -1,19 +1,36 @@
 package com.taxease.service;
 
+import com.taxease.dto.WalletDTO;
 import com.taxease.model.UserInvestment;
 import com.taxease.model.UserInvestment.InvestmentSlot;
 import com.taxease.model.UserInvestment.Section;
 import com.taxease.repository.UserInvestmentRepository;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AccumulatorOperators;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class WalletService {
@@ -31,9 +48,25 @@ public class WalletService {
         SECTION_LIMITS.put(Section.SECTION_80TTA, 10000.0);
     }
 
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
     @Autowired
     private UserInvestmentRepository userInvestmentRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TaxPositionService taxPositionService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    /** Deduction cap for a section; 0 means the section has no limit. */
+    public static double getSectionLimit(Section section) {
+        return SECTION_LIMITS.getOrDefault(section, 0.0);
+    }
+
     public List<UserInvestment> getWallet(String userId, String financialYear) {
         if (financialYear == null || financialYear.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Financial year is required");
@@ -64,166 +97,190 @@ public class WalletService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         }
 
-        UserInvestment sectionDoc = userInvestmentRepository
-                .findByUserIdAndFinancialYearAndSection(userId, financialYear, section)
-                .orElse(null);
-
         double limit = SECTION_LIMITS.getOrDefault(section, 0.0);
+        if (limit > 0 && amount > limit) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format("Amount %.0f exceeds section limit of %.0f", amount, limit)
+            );
+        }
 
-        if (sectionDoc != null) {
-            sectionDoc.recalculateInvested();
-            double newInvested = (sectionDoc.getInvested() != null ? sectionDoc.getInvested() : 0.0) + amount;
-            if (limit > 0 && newInvested > limit) {
-                throw new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        String.format("Adding %.0f exceeds section limit of %.0f", amount, limit)
-                );
+        InvestmentSlot slot = InvestmentSlot.create(name, amount);
+
+        // Either the conditional $push lands or we create the section; a lost race on
+        // the unique (userId, financialYear, section) index just means we push again.
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            Query query = sectionQuery(userId, financialYear, section);
+            if (limit > 0) {
+                query.addCriteria(Criteria.expr(() -> new Document("$lte",
+                        List.of(new Document("$sum", "$slots.amount"), limit - amount))));
             }
-            if (sectionDoc.getSlots() == null) {
-                sectionDoc.setSlots(new ArrayList<>());
+            Update update = new Update()
+                    .push("slots", slot)
+                    .inc("invested", amount)
+                    .set("lastUpdated", LocalDateTime.now());
+
+            UserInvestment updated = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true), UserInvestment.class);
+            if (updated != null) {
+                return published(updated);
             }
-            sectionDoc.getSlots().add(InvestmentSlot.create(name, amount));
-            sectionDoc.recalculateInvested();
-            return userInvestmentRepository.save(sectionDoc);
-        } else {
-            if (limit > 0 && amount > limit) {
+
+            if (mongoTemplate.exists(sectionQuery(userId, financialYear, section), UserInvestment.class)) {
                 throw new ResponseStatusException(
                         HttpStatus.BAD_REQUEST,
-                        String.format("Amount %.0f exceeds section limit of %.0f", amount, limit)
+                        String.format("Adding %.0f exceeds section limit of %.0f", amount, limit)
                 );
             }
+
             UserInvestment newSection = new UserInvestment();
             newSection.setUserId(userId);
             newSection.setFinancialYear(financialYear);
             newSection.setSection(section);
             newSection.setLimit(limit);
             List<InvestmentSlot> slots = new ArrayList<>();
-            slots.add(InvestmentSlot.create(name, amount));
+            slots.add(slot);
             newSection.setSlots(slots);
             newSection.recalculateInvested();
-            return userInvestmentRepository.save(newSection);
+            try {
+                return published(mongoTemplate.insert(newSection));
+            } catch (DuplicateKeyException ex) {
+                // Another request created the section first; retry the conditional push
+            }
         }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Wallet section is busy, please retry");
     }
 
-    @SuppressWarnings("null")
     public UserInvestment updateInvestmentSlot(String sectionId,
                                                String slotId,
                                                String name,
                                                Double amount) {
-        UserInvestment sectionDoc = userInvestmentRepository.findById(sectionId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Section not found"));
-
-        if (sectionDoc.getSlots() == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Investment slot not found");
-        }
-
-        InvestmentSlot slot = sectionDoc.getSlots().stream()
-                .filter(s -> slotId.equals(s.getId()))
-                .findFirst()
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Investment slot not found"));
-
-        double oldAmount = slot.getAmount() != null ? slot.getAmount() : 0.0;
-        double newAmount = amount != null ? amount : oldAmount;
-
-        double limit = SECTION_LIMITS.getOrDefault(sectionDoc.getSection(), 0.0);
-        sectionDoc.recalculateInvested();
-        double currentInvested = sectionDoc.getInvested() != null ? sectionDoc.getInvested() : 0.0;
-        double newInvested = currentInvested - oldAmount + newAmount;
-
-        if (limit > 0 && newInvested > limit) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    String.format("Update exceeds section limit of %.0f", limit)
-            );
+        Query query = Query.query(Criteria.where("id").is(sectionId).and("slots.id").is(slotId));
+        AggregationUpdate update = AggregationUpdate.update();
+
+        if (amount != null) {
+            // Limit check runs server-side against the slot's current amount and the
+            // section's stored limit (0 = unlimited):
+            // sum(slots.amount) - slot.amount + amount <= limit
+            Document currentSlotAmount = new Document("$sum", new Document("$map", new Document()
+                    .append("input", slotFilter(slotId, "$eq"))
+                    .append("as", "s")
+                    .append("in", "$$s.amount")));
+            Document newInvested = new Document("$add", List.of(
+                    new Document("$sum", "$slots.amount"),
+                    new Document("$subtract", List.of(amount, currentSlotAmount))));
+            query.addCriteria(Criteria.expr(() -> new Document("$or", List.of(
+                    new Document("$lte", List.of(new Document("$ifNull", List.of("$limit", 0)), 0)),
+                    new Document("$lte", List.of(newInvested, "$limit"))))));
         }
 
+        Document changes = new Document();
         if (name != null && !name.isBlank()) {
-            slot.setName(name);
+            changes.append("name", new Document("$literal", name));
+        }
+        if (amount != null) {
+            changes.append("amount", amount);
+        }
+        Document slots = new Document("$map", new Document()
+                .append("input", "$slots")
+                .append("as", "s")
+                .append("in", new Document("$cond", List.of(
+                        new Document("$eq", List.of("$$s._id", slotId)),
+                        new Document("$mergeObjects", List.of("$$s", changes)),
+                        "$$s"))));
+        update.set("slots").toValue(expression(slots))
+                .set("invested").toValue(expression(new Document("$sum", "$slots.amount")))
+                .set("lastUpdated").toValue(expression(new Document("$toDate", "$$NOW")));
+
+        UserInvestment updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), UserInvestment.class);
+        if (updated != null) {
+            return published(updated);
         }
-        slot.setAmount(newAmount);
 
-        sectionDoc.recalculateInvested();
-        return userInvestmentRepository.save(sectionDoc);
+        UserInvestment sectionDoc = requireSlot(sectionId, slotId);
+        throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                String.format("Update exceeds section limit of %.0f", sectionDoc.getLimit())
+        );
     }
 
-    @SuppressWarnings("null")
-    public Map<String, Object> deleteInvestmentSlot(String sectionId, String slotId) {
-        UserInvestment sectionDoc = userInvestmentRepository.findById(sectionId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Section not found"));
-
-        if (sectionDoc.getSlots() == null || sectionDoc.getSlots().isEmpty()) {
+    public WalletDTO.SlotDeleted deleteInvestmentSlot(String sectionId, String slotId) {
+        Query query = Query.query(Criteria.where("id").is(sectionId).and("slots.id").is(slotId));
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("slots").toValue(expression(slotFilter(slotId, "$ne")))
+                .set("invested").toValue(expression(new Document("$sum", "$slots.amount")))
+                .set("lastUpdated").toValue(expression(new Document("$toDate", "$$NOW")));
+
+        UserInvestment saved = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), UserInvestment.class);
+        if (saved == null) {
+            requireSlot(sectionId, slotId);
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Investment slot not found");
         }
-
-        boolean removed = sectionDoc.getSlots().removeIf(s -> slotId.equals(s.getId()));
-        if (!removed) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Investment slot not found");
+        published(saved);
+
+        if (saved.getSlots() == null || saved.getSlots().isEmpty()) {
+            // Only drop the section if nothing was added since our pull
+            mongoTemplate.remove(Query.query(Criteria.where("id").is(sectionId).and("slots").size(0)),
+                    UserInvestment.class);
+            dataVersions.changed(saved.getUserId(), DataVersions.Scope.WALLET);
+            return new WalletDTO.SlotDeleted("Investment deleted and section removed", null);
         }
-
-        Map<String, Object> response = new HashMap<>();
-
-        if (sectionDoc.getSlots().isEmpty()) {
-            userInvestmentRepository.delete(sectionDoc);
-            response.put("message", "Investment deleted and section removed");
-        } else {
-            sectionDoc.recalculateInvested();
-            UserInvestment saved = userInvestmentRepository.save(sectionDoc);
-
-            Map<String, Object> section = new HashMap<>();
-            section.put("_id", saved.getId());
-            section.put("section", saved.getSection().getValue());
-            section.put("limit", saved.getLimit());
-            section.put("invested", saved.getInvested());
-            section.put("remaining", saved.getRemainingLimit());
-            section.put("progress", saved.getProgressPercentage());
-            section.put("slots", saved.getSlots());
-            section.put("lastUpdated", saved.getLastUpdated());
-
-            response.put("message", "Investment slot deleted");
-            response.put("section", section);
-        }
-
-        return response;
+        return new WalletDTO.SlotDeleted("Investment slot deleted", WalletDTO.SectionView.of(saved));
     }
 
-    public Map<String, Object> getWalletSummary(String userId, String financialYear) {
+    public WalletDTO.Summary getWalletSummary(String userId, String financialYear) {
         if (financialYear == null || financialYear.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Financial year is required");
         }
 
-        List<UserInvestment> walletData = userInvestmentRepository.findByUserIdAndFinancialYear(userId, financialYear);
-        walletData.forEach(UserInvestment::recalculateInvested);
-
-        double totalInvested = walletData.stream()
-                .mapToDouble(ui -> ui.getInvested() != null ? ui.getInvested() : 0.0)
-                .sum();
-
-        double totalLimit = walletData.stream()
-                .mapToDouble(ui -> ui.getLimit() != null ? ui.getLimit() : 0.0)
-                .sum();
-
-        double totalRemaining = walletData.stream()
-                .mapToDouble(UserInvestment::getRemainingLimit)
-                .sum();
-
-        List<Map<String, Object>> bySections = new ArrayList<>();
-        for (UserInvestment ui : walletData) {
-            Map<String, Object> s = new HashMap<>();
-            s.put("section", ui.getSection().getValue());
-            s.put("invested", ui.getInvested());
-            s.put("limit", ui.getLimit());
-            s.put("remaining", ui.getRemainingLimit());
-            s.put("progress", ui.getProgressPercentage());
-            bySections.add(s);
+        return summaryOf(mongoTemplate.aggregate(summaryAggregation(userId, financialYear), Document.class));
+    }
+
+    // Mongo sums each section's slots and returns one small row per section;
+    // the slots themselves never leave the server
+    static TypedAggregation<UserInvestment> summaryAggregation(String userId, String financialYear) {
+        return Aggregation.newAggregation(UserInvestment.class,
+                Aggregation.match(Criteria.where("userId").is(userId).and("financialYear").is(financialYear)),
+                Aggregation.project("section", "limit")
+                        .and(AccumulatorOperators.Sum.sumOf("slots.amount")).as("invested"),
+                Aggregation.group("section")
+                        .sum("invested").as("invested")
+                        .max("limit").as("limit"));
+    }
+
+    static WalletDTO.Summary summaryOf(Iterable<Document> rows) {
+        Map<Section, double[]> totals = new EnumMap<>(Section.class);
+        for (Document row : rows) {
+            Object section = row.get("_id");
+            if (section != null) {
+                totals.put(Section.valueOf(section.toString()),
+                        new double[]{number(row.get("invested")), number(row.get("limit"))});
+            }
         }
+        return toWalletSummary(totals);
+    }
 
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("totalInvested", totalInvested);
-        summary.put("totalLimit", totalLimit);
-        summary.put("totalRemaining", totalRemaining);
-        summary.put("bySections", bySections);
+    // totals holds {invested, limit} per section, iterated in enum order
+    private static WalletDTO.Summary toWalletSummary(Map<Section, double[]> totals) {
+        double totalInvested = 0;
+        double totalLimit = 0;
+        double totalRemaining = 0;
+        List<WalletDTO.SectionSummary> bySections = new ArrayList<>(totals.size());
+        for (Map.Entry<Section, double[]> entry : totals.entrySet()) {
+            double invested = entry.getValue()[0];
+            double limit = entry.getValue()[1];
+            double remaining = Math.max(0.0, limit - invested);
+            totalInvested += invested;
+            totalLimit += limit;
+            totalRemaining += remaining;
+
+            bySections.add(new WalletDTO.SectionSummary(entry.getKey().getValue(), invested, limit, remaining,
+                    limit > 0 ? (invested / limit) * 100.0 : 0.0));
+        }
 
-        return summary;
+        return new WalletDTO.Summary(totalInvested, totalLimit, totalRemaining, bySections);
     }
 
     public List<UserInvestment> initializeWallet(String userId,
@@ -234,33 +291,99 @@ public class WalletService {
                     "userId, financialYear, and sections array are required");
         }
 
-        List<UserInvestment> createdSections = new ArrayList<>();
-
+        Set<Section> sections = EnumSet.noneOf(Section.class);
         for (String value : sectionValues) {
-            Section section;
             try {
-                section = Section.fromValue(value);
+                sections.add(Section.fromValue(value));
             } catch (IllegalArgumentException ex) {
-                continue; // Skip invalid sections silently
+                // Skip invalid sections silently
             }
+        }
+        if (sections.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-            boolean exists = userInvestmentRepository
-                    .findByUserIdAndFinancialYearAndSection(userId, financialYear, section)
-                    .isPresent();
-
-            if (!exists) {
-                double limit = SECTION_LIMITS.getOrDefault(section, 0.0);
-                UserInvestment ui = new UserInvestment();
-                ui.setUserId(userId);
-                ui.setFinancialYear(financialYear);
-                ui.setSection(section);
-                ui.setLimit(limit);
-                ui.setSlots(new ArrayList<>());
-                ui.recalculateInvested();
-                createdSections.add(userInvestmentRepository.save(ui));
-            }
+        // One unordered bulk of upserts; $setOnInsert leaves existing sections untouched
+        LocalDateTime now = LocalDateTime.now();
+        List<UserInvestment> candidates = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserInvestment.class);
+        for (Section section : sections) {
+            UserInvestment ui = new UserInvestment();
+            ui.setUserId(userId);
+            ui.setFinancialYear(financialYear);
+            ui.setSection(section);
+            ui.setLimit(SECTION_LIMITS.getOrDefault(section, 0.0));
+            ui.setSlots(new ArrayList<>());
+            ui.recalculateInvested();
+            ui.setCreatedAt(now);
+            ui.setLastUpdated(now);
+            candidates.add(ui);
+
+            Update update = new Update()
+                    .setOnInsert("limit", ui.getLimit())
+                    .setOnInsert("invested", ui.getInvested())
+                    .setOnInsert("slots", ui.getSlots())
+                    .setOnInsert("createdAt", now)
+                    .setOnInsert("lastUpdated", now);
+            bulk.upsert(sectionQuery(userId, financialYear, section), update);
+        }
+
+        List<UserInvestment> createdSections = new ArrayList<>();
+        for (BulkWriteUpsert upsert : bulk.execute().getUpserts()) {
+            UserInvestment created = candidates.get(upsert.getIndex());
+            created.setId(upsert.getId().isObjectId()
+                    ? upsert.getId().asObjectId().getValue().toHexString()
+                    : upsert.getId().toString());
+            createdSections.add(created);
+        }
+        if (!createdSections.isEmpty()) {
+            dataVersions.changed(userId, DataVersions.Scope.WALLET);
         }
 
         return createdSections;
     }
+
+    // Pushes the section's new total into the tax position read model and invalidates wallet ETags
+    private UserInvestment published(UserInvestment section) {
+        taxPositionService.walletSectionChanged(section.getUserId(), section.getFinancialYear(),
+                section.getSection(), section.getInvested() != null ? section.getInvested() : 0.0);
+        dataVersions.changed(section.getUserId(), DataVersions.Scope.WALLET);
+        return section;
+    }
+
+    private static Query sectionQuery(String userId, String financialYear, Section section) {
+        return Query.query(Criteria.where("userId").is(userId)
+                .and("financialYear").is(financialYear)
+                .and("section").is(section));
+    }
+
+    // Distinguishes "no such section" from "no such slot" after a conditional write missed
+    private UserInvestment requireSlot(String sectionId, String slotId) {
+        Query query = Query.query(Criteria.where("id").is(sectionId));
+        // Projections are not mapped, so the stored slot key (_id) is used directly
+        query.fields().include("section", "limit").elemMatch("slots", Criteria.where("_id").is(slotId));
+        UserInvestment doc = mongoTemplate.findOne(query, UserInvestment.class);
+        if (doc == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Section not found");
+        }
+        if (doc.getSlots() == null || doc.getSlots().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Investment slot not found");
+        }
+        return doc;
+    }
+
+    private static Document slotFilter(String slotId, String comparison) {
+        return new Document("$filter", new Document()
+                .append("input", "$slots")
+                .append("as", "s")
+                .append("cond", new Document(comparison, List.of("$$s._id", slotId))));
+    }
+
+    private static AggregationExpression expression(Document document) {
+        return context -> document;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number n ? n.doubleValue() : 0.0;
+    }
 }
@@ -0,0 +1,122 @@
+package com.taxease.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread factories for the application's own background pools (PDF
+ * rendering, position rebuilds, migrations). With
+ * {@code spring.threads.virtual.enabled} on a Java 21+ runtime they hand out
+ * virtual threads, otherwise named daemon platform threads. Each pool keeps
+ * started/alive counts for {@link #stats()}.
+ */
+@Component
+public class WorkerThreads {
+
+    private static final class PoolStats {
+        final AtomicLong started = new AtomicLong();
+        final AtomicInteger alive = new AtomicInteger();
+    }
+
+    private static final String CARRIER_GROUP = "CarrierThreads";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualEnabled;
+
+    private final Map<String, PoolStats> pools = new ConcurrentHashMap<>();
+
+    public boolean virtualThreadsActive() {
+        return virtualEnabled && Runtime.version().feature() >= 21;
+    }
+
+    public ThreadFactory factory(String pool) {
+        return tracked(pool, virtualThreadsActive()
+                ? new VirtualThreadTaskExecutor(pool + "-").getVirtualThreadFactory()
+                : platformFactory(pool));
+    }
+
+    // For CPU-bound pools: virtual threads would hold their carriers and starve request handling
+    public ThreadFactory platformThreads(String pool) {
+        return tracked(pool, platformFactory(pool));
+    }
+
+    private ThreadFactory tracked(String pool, ThreadFactory delegate) {
+        PoolStats stats = pools.computeIfAbsent(pool, p -> {
+            PoolStats created = new PoolStats();
+            Gauge.builder("taxease.worker.threads.alive", created.alive, AtomicInteger::get)
+                    .tag("pool", p)
+                    .register(meterRegistry);
+            return created;
+        });
+        return task -> delegate.newThread(() -> {
+            stats.started.incrementAndGet();
+            stats.alive.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                stats.alive.decrementAndGet();
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Map<String, Object> platform = new LinkedHashMap<>();
+        platform.put("live", threads.getThreadCount());
+        platform.put("peak", threads.getPeakThreadCount());
+        platform.put("daemon", threads.getDaemonThreadCount());
+
+        // Virtual threads are scheduled on a ForkJoinPool of platform "carrier" threads
+        int parallelism = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        Map<String, Object> carriers = new LinkedHashMap<>();
+        carriers.put("parallelism", parallelism);
+        carriers.put("maxPoolSize", Integer.getInteger("jdk.virtualThreadScheduler.maxPoolSize",
+                Math.max(parallelism, 256)));
+        carriers.put("live", Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getThreadGroup() != null && CARRIER_GROUP.equals(t.getThreadGroup().getName()))
+                .count());
+
+        Map<String, Object> workerPools = new LinkedHashMap<>();
+        pools.forEach((name, stats) -> {
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("threadsStarted", stats.started.get());
+            pool.put("threadsAlive", stats.alive.get());
+            workerPools.put(name, pool);
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("javaVersion", Runtime.version().toString());
+        result.put("virtualThreadsEnabled", virtualEnabled);
+        result.put("virtualThreadsActive", virtualThreadsActive());
+        result.put("platformThreads", platform);
+        result.put("carrierThreads", carriers);
+        result.put("workerPools", workerPools);
+        return result;
+    }
+
+    private static ThreadFactory platformFactory(String pool) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, pool + "-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
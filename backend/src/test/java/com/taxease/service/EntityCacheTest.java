@@ -0,0 +1,52 @@
+package com.taxease.service;
+
+import com.taxease.dto.PageDTO;
+import com.taxease.model.TaxReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EntityCacheTest {
+
+    private EntityCache entityCache;
+
+    @BeforeEach
+    void setUp() {
+        entityCache = new EntityCache();
+        ReflectionTestUtils.setField(entityCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(entityCache, "userMaxSize", 100L);
+        ReflectionTestUtils.setField(entityCache, "userTtlSeconds", 300L);
+        ReflectionTestUtils.setField(entityCache, "reportMaxSize", 100L);
+        ReflectionTestUtils.setField(entityCache, "reportTtlSeconds", 300L);
+        entityCache.init();
+    }
+
+    @Test
+    void firstPageIsServedForTheVersionItWasLoadedUnder() {
+        PageDTO<TaxReport> page = new PageDTO<>(List.of(), null);
+
+        entityCache.firstReportPage("u1", "\"reports-1-1\"", () -> page);
+
+        assertSame(page, entityCache.firstReportPage("u1", "\"reports-1-1\"", () -> {
+            throw new AssertionError("cached page not used");
+        }));
+    }
+
+    @Test
+    void stalePagePutBackAfterEvictionIsNotServedForTheNewVersion() {
+        PageDTO<TaxReport> stale = new PageDTO<>(List.of(), null);
+        PageDTO<TaxReport> fresh = new PageDTO<>(List.of(new TaxReport()), null);
+
+        // A report is generated while a load that read version 1 is still running
+        entityCache.evictReport("r2", "u1");
+        entityCache.firstReportPage("u1", "\"reports-1-1\"", () -> stale);
+
+        assertSame(fresh, entityCache.firstReportPage("u1", "\"reports-1-2\"", () -> fresh));
+        assertSame(fresh, entityCache.firstReportPage("u1", "\"reports-1-2\"", () -> stale));
+    }
+}
@@ -0,0 +1,66 @@
+package com.taxease.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PdfCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private PdfCache pdfCache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pdfCache = new PdfCache();
+        ReflectionTestUtils.setField(pdfCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pdfCache, "directory", directory.toString());
+        ReflectionTestUtils.setField(pdfCache, "maxBytes", 150L);
+        pdfCache.init();
+    }
+
+    @Test
+    void openEntryStaysReadableAfterEviction() throws IOException {
+        byte[] first = filled(100, (byte) 1);
+        pdfCache.put("first", first).close();
+
+        PdfCache.CachedPdf open = pdfCache.get("first");
+        assertNotNull(open);
+        pdfCache.put("second", filled(100, (byte) 2)).close();
+        assertFalse(Files.exists(directory.resolve("first.pdf")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        open.writeTo(out);
+        assertArrayEquals(first, out.toByteArray());
+        assertNull(pdfCache.get("first"));
+    }
+
+    @Test
+    void missingFileIsAMiss() throws IOException {
+        pdfCache.put("gone", filled(10, (byte) 3)).close();
+        Files.delete(directory.resolve("gone.pdf"));
+
+        assertNull(pdfCache.get("gone"));
+        assertFalse(pdfCache.contains("gone"));
+    }
+
+    private static byte[] filled(int size, byte value) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+}
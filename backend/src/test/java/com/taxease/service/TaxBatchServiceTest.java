@@ -0,0 +1,143 @@
+package com.taxease.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaxBatchServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TaxBatchService taxBatchService;
+
+    @BeforeEach
+    void setUp() {
+        TaxSlabEngine engine = new TaxSlabEngine();
+        ReflectionTestUtils.setField(engine, "location", new ClassPathResource("tax-slabs.json"));
+        engine.reload();
+        TaxService taxService = new TaxService();
+        ReflectionTestUtils.setField(taxService, "taxSlabEngine", engine);
+
+        taxBatchService = new TaxBatchService();
+        ReflectionTestUtils.setField(taxBatchService, "taxService", taxService);
+        ReflectionTestUtils.setField(taxBatchService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void nestedValuesAreRejectedWithoutDesynchronisingTheStream() throws IOException {
+        List<JsonNode> rows = calculate("""
+                [{"id":"a","income":{"id":"evil","income":999},"regime":"new"},
+                 {"id":"b","income":1200000,"regime":"new"}]
+                """);
+
+        assertEquals(2, rows.size());
+        assertEquals(1, rows.get(0).get("row").asLong());
+        assertEquals("a", rows.get(0).get("id").asText());
+        assertEquals("income must be a number", rows.get(0).get("error").asText());
+        assertEquals(2, rows.get(1).get("row").asLong());
+        assertEquals("b", rows.get(1).get("id").asText());
+        assertFalse(rows.get(1).has("error"));
+    }
+
+    @Test
+    void nestedStringFieldsAndUnknownFieldsAreSkippedWhole() throws IOException {
+        List<JsonNode> rows = calculate("""
+                {"id":["x","y"],"income":500000}
+                {"id":"c","regime":{"name":"old"},"income":500000}
+                {"id":"d","extra":{"income":1},"deductions":[1,2],"income":500000}
+                {"id":"e","income":500000,"extra":[{"id":"z"}]}
+                """);
+
+        assertEquals(4, rows.size());
+        assertEquals("id must be a string", rows.get(0).get("error").asText());
+        assertEquals("regime must be a string", rows.get(1).get("error").asText());
+        assertEquals("d", rows.get(2).get("id").asText());
+        assertEquals("deductions must be a number", rows.get(2).get("error").asText());
+        assertEquals("e", rows.get(3).get("id").asText());
+        assertTrue(rows.get(3).has("taxAmount"));
+    }
+
+    @Test
+    void nonObjectRowsAndMissingIncomeAreReportedPerRow() throws IOException {
+        List<JsonNode> rows = calculate("[42, {\"id\":\"f\"}, {\"id\":\"g\",\"income\":700000}]");
+
+        assertEquals(3, rows.size());
+        assertEquals("Row must be a JSON object", rows.get(0).get("error").asText());
+        assertEquals("income is required", rows.get(1).get("error").asText());
+        assertEquals(3, rows.get(2).get("row").asLong());
+        assertTrue(rows.get(2).has("netIncome"));
+    }
+
+    @Test
+    void malformedJsonStopsWithAnError() throws IOException {
+        List<JsonNode> rows = calculate("{\"id\":\"h\",\"income\":100000}\n{\"id\":");
+
+        assertEquals(2, rows.size());
+        assertTrue(rows.get(1).get("error").asText().startsWith("Malformed input"));
+    }
+
+    @Test
+    void decodedRowsAnswerLikeTheStreamingPath() throws IOException {
+        String input = """
+                {"id":{"x":1},"income":800000,"regime":{"y":"new"}}
+                {"id":"a","income":800000,"regime":"new","financialYear":"2025-26"}
+                5
+                {"id":7,"income":"800000"}
+                {"id":null,"income":800000,"deductions":50000,"financialYear":["2024-25"]}
+                {"id":"b","deductions":{"80C":1}}
+                {"id":"c","income":null}
+                {"id":"d","income":1500000,"deductions":150000,"regime":"old","extra":{"income":1}}
+                """;
+
+        List<JsonNode> streamed = calculate(input);
+        List<JsonNode> decoded = new ArrayList<>();
+        long row = 0;
+        for (String line : input.split("\n")) {
+            Map<String, Object> result = taxBatchService.calculateRow(++row, objectMapper.readTree(line));
+            decoded.add(objectMapper.readTree(objectMapper.writeValueAsString(result)));
+        }
+
+        assertEquals(streamed, decoded);
+        assertEquals("regime must be a string", decoded.get(0).get("error").asText());
+        assertFalse(decoded.get(0).has("id"));
+        assertEquals("Row must be a JSON object", decoded.get(2).get("error").asText());
+        assertEquals("financialYear must be a string", decoded.get(4).get("error").asText());
+    }
+
+    @Test
+    void malformedDecodedInputKeepsTheErrorShape() {
+        JsonProcessingException cause = new JsonParseException(null, "Unexpected end-of-input");
+        Map<String, Object> result = taxBatchService.malformedRow(3, new IllegalStateException("decoding failed", cause));
+
+        assertEquals(3L, result.get("row"));
+        assertEquals("Malformed input: Unexpected end-of-input", result.get("error"));
+    }
+
+    private List<JsonNode> calculate(String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taxBatchService.calculateBatch(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,142 @@
+package com.taxease.service;
+
+import com.taxease.dto.OptimizerDTO;
+import com.taxease.model.User.TaxRegime;
+import com.taxease.model.UserInvestment.Section;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaxOptimizerServiceTest {
+
+    private TaxSlabEngine engine;
+    private TaxOptimizerService optimizer;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TaxSlabEngine();
+        ReflectionTestUtils.setField(engine, "location", new ClassPathResource("tax-slabs.json"));
+        engine.reload();
+        optimizer = new TaxOptimizerService();
+        ReflectionTestUtils.setField(optimizer, "taxSlabEngine", engine);
+    }
+
+    @Test
+    void fillsSectionHeadroomWithinBudget() {
+        OptimizerDTO.OptimizeResult result = optimizer.optimize(request(1_200_000, 200_000, List.of(
+                candidate("ELSS", "80C", 100_000, false),
+                candidate("PPF", "80C", 150_000, true),
+                candidate("NPS", "80CCD(1B)", 50_000, false))));
+
+        assertEquals(200_000, result.planSpend(), 1e-6);
+        assertEquals(200_000, result.oldRegime().deductions(), 1e-6);
+        assertEquals(engine.taxOn(null, TaxRegime.OLD, 1_000_000), result.oldRegime().taxAmount(), 1e-6);
+        assertTrue(result.exhaustive());
+    }
+
+    @Test
+    void matchesBruteForceOnRandomCases() {
+        Random random = new Random(42);
+        Section[] sections = Section.values();
+        for (int run = 0; run < 3000; run++) {
+            int n = random.nextInt(9);
+            List<OptimizerDTO.Candidate> candidates = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                Section section = sections[random.nextInt(sections.length)];
+                double amount = 1000.0 * (1 + random.nextInt(200));
+                candidates.add(candidate("c" + i, section.getValue(), amount, random.nextInt(4) == 0));
+            }
+            double income = 1000.0 * random.nextInt(2000);
+            double budget = 1000.0 * random.nextInt(400);
+
+            OptimizerDTO.OptimizeResult result = optimizer.optimize(request(income, budget, candidates));
+            double[] expected = bruteForce(income, budget, candidates);
+
+            String where = "case " + run + ": income " + income + ", budget " + budget + ", " + candidates;
+            assertTrue(result.exhaustive(), where);
+            assertTrue(result.planSpend() <= budget + 1e-6, where);
+            assertEquals(expected[0], result.oldRegime().taxAmount(), 1e-6, where);
+            assertEquals(expected[1], result.planSpend(), 1e-3, where);
+        }
+    }
+
+    /**
+     * Lowest old-regime tax over every subset of the indivisible candidates,
+     * with divisible ones funded as far as they still lower the tax; ties go
+     * to the smaller spend. Returns {tax, spend}.
+     */
+    private double[] bruteForce(double income, double budget, List<OptimizerDTO.Candidate> candidates) {
+        TaxSlabTable old = engine.table(null, TaxRegime.OLD);
+        List<OptimizerDTO.Candidate> indivisible = new ArrayList<>();
+        double[] divisibleTotal = new double[Section.values().length];
+        for (OptimizerDTO.Candidate c : candidates) {
+            if (c.isDivisible()) {
+                divisibleTotal[Section.fromValue(c.getSection()).ordinal()] += c.getAmount();
+            } else {
+                indivisible.add(c);
+            }
+        }
+
+        double bestTax = Double.POSITIVE_INFINITY;
+        double bestSpend = Double.POSITIVE_INFINITY;
+        for (int mask = 0; mask < 1 << indivisible.size(); mask++) {
+            double[] used = new double[divisibleTotal.length];
+            double spend = 0;
+            for (int i = 0; i < indivisible.size(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    used[Section.fromValue(indivisible.get(i).getSection()).ordinal()] += indivisible.get(i).getAmount();
+                    spend += indivisible.get(i).getAmount();
+                }
+            }
+            if (spend > budget) {
+                continue;
+            }
+            double value = 0;
+            double divisibleRoom = 0;
+            for (Section s : Section.values()) {
+                double limit = WalletService.getSectionLimit(s);
+                double headroom = limit > 0 ? limit : Double.POSITIVE_INFINITY;
+                value += Math.min(used[s.ordinal()], headroom);
+                divisibleRoom += Math.min(Math.max(0, headroom - used[s.ordinal()]), divisibleTotal[s.ordinal()]);
+            }
+            double maxFill = Math.min(budget - spend, divisibleRoom);
+            double tax = old.taxOn(income - value - maxFill);
+
+            // Smallest fill that already reaches that tax
+            double lo = 0;
+            double hi = maxFill;
+            while (hi - lo > 1e-5) {
+                double mid = (lo + hi) / 2;
+                if (old.taxOn(income - value - mid) <= tax + 1e-9) {
+                    hi = mid;
+                } else {
+                    lo = mid;
+                }
+            }
+            double total = spend + hi;
+
+            if (tax < bestTax - 1e-6 || (tax < bestTax + 1e-6 && total < bestSpend)) {
+                bestTax = tax;
+                bestSpend = total;
+            }
+        }
+        return new double[] {bestTax, bestSpend};
+    }
+
+    private static OptimizerDTO.OptimizeRequest request(double income, double budget,
+                                                        List<OptimizerDTO.Candidate> candidates) {
+        return new OptimizerDTO.OptimizeRequest(null, null, income, budget, candidates);
+    }
+
+    private static OptimizerDTO.Candidate candidate(String name, String section, double amount, boolean divisible) {
+        return new OptimizerDTO.Candidate(name, section, amount, divisible);
+    }
+}
@@ -0,0 +1,70 @@
+package com.taxease.service;
+
+import com.taxease.model.User.TaxRegime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaxSlabEngineTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    private TaxSlabEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = directory.resolve("tax-slabs.json");
+        write(0.10);
+        engine = new TaxSlabEngine();
+        ReflectionTestUtils.setField(engine, "location", new FileSystemResource(file));
+        engine.reload();
+    }
+
+    @Test
+    void reloadPicksUpEditedFile() throws IOException {
+        assertEquals(10000, engine.taxOn("2024-25", TaxRegime.NEW, 200000), 1e-6);
+
+        write(0.20);
+        engine.reload();
+
+        assertEquals(20000, engine.taxOn("2024-25", TaxRegime.NEW, 200000), 1e-6);
+    }
+
+    @Test
+    void invalidFileKeepsCurrentTables() throws IOException {
+        Files.writeString(file, "{\"defaultYear\": \"2024-25\", \"years\": {\"2024-25\": {\"new\": []}}}");
+        assertThrows(IllegalStateException.class, engine::reload);
+
+        Files.writeString(file, "{\"defaultYear\": \"2024-25\", \"years\": {\"2024-25\": {"
+                + "\"new\": [{\"from\": 5, \"rate\": 0.1}], \"old\": [{\"from\": 0, \"rate\": 0}]}}}");
+        assertThrows(IllegalStateException.class, engine::reload);
+
+        assertEquals(10000, engine.taxOn("2024-25", TaxRegime.NEW, 200000), 1e-6);
+    }
+
+    private void write(double rate) throws IOException {
+        Files.writeString(file, """
+                {
+                  "defaultYear": "2024-25",
+                  "years": {
+                    "2024-25": {
+                      "new": [{ "from": 0, "rate": 0 }, { "from": 100000, "rate": %s }],
+                      "old": [{ "from": 0, "rate": 0 }, { "from": 100000, "rate": %s }]
+                    }
+                  }
+                }
+                """.formatted(rate, rate));
+    }
+}
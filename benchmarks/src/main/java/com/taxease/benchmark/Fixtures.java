@@ -0,0 +1,160 @@
+package com.taxease.benchmark;
+
+import com.taxease.model.Investment;
+import com.taxease.model.TaxReport;
+import com.taxease.model.UserInvestment;
+import com.taxease.model.UserInvestment.InvestmentSlot;
+import com.taxease.model.UserInvestment.Section;
+import com.taxease.service.TaxSlabEngine;
+import org.bson.Document;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Shared test data and a Mongo stub. Services are wired by field injection,
+ * so benchmarks set their collaborators reflectively.
+ */
+final class Fixtures {
+
+    static final String USER_ID = "bench-user";
+    static final String FINANCIAL_YEAR = "2024-25";
+
+    private Fixtures() {
+    }
+
+    static void inject(Object target, String field, Object value) {
+        ReflectionTestUtils.setField(target, field, value);
+    }
+
+    static TaxSlabEngine slabEngine() {
+        TaxSlabEngine engine = new TaxSlabEngine();
+        inject(engine, "location", new ClassPathResource("tax-slabs.json"));
+        engine.reload();
+        return engine;
+    }
+
+    /**
+     * MongoTemplate whose typed aggregations return {@code rows} without a
+     * server, so the summaries run their real pipeline building and row
+     * mapping. Any call that would reach the database throws.
+     */
+    static MongoTemplate aggregating(List<Document> rows) {
+        MongoDatabaseFactory factory = (MongoDatabaseFactory) Proxy.newProxyInstance(
+                MongoDatabaseFactory.class.getClassLoader(), new Class<?>[]{MongoDatabaseFactory.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getExceptionTranslator")) {
+                        return new MongoExceptionTranslator();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return new MongoTemplate(factory) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <O> AggregationResults<O> aggregate(TypedAggregation<?> aggregation, Class<O> outputType) {
+                return new AggregationResults<>((List<O>) rows, new Document());
+            }
+        };
+    }
+
+    // One row per section, as WalletService.summaryAggregation groups them
+    static List<Document> walletSummaryRows() {
+        List<Document> rows = new ArrayList<>();
+        for (UserInvestment section : wallet(10)) {
+            rows.add(new Document("_id", section.getSection().name())
+                    .append("invested", section.getInvested())
+                    .append("limit", section.getLimit()));
+        }
+        return rows;
+    }
+
+    // One row per (section, type) held, as InvestmentService.summaryAggregation groups them
+    static List<Document> investmentSummaryRows(int investments) {
+        Map<List<String>, Double> totals = new LinkedHashMap<>();
+        for (Investment inv : investments(investments)) {
+            totals.merge(List.of(inv.getSection().name(), inv.getType().name()), inv.getAmount(), Double::sum);
+        }
+        List<Document> rows = new ArrayList<>();
+        totals.forEach((key, amount) -> rows.add(
+                new Document("_id", new Document("section", key.get(0)).append("type", key.get(1)))
+                        .append("amount", amount)));
+        return rows;
+    }
+
+    static List<Investment> investments(int count) {
+        Random random = new Random(42);
+        Investment.InvestmentType[] types = Investment.InvestmentType.values();
+        Investment.TaxSection[] sections = Investment.TaxSection.values();
+        List<Investment> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Investment inv = new Investment();
+            inv.setId("inv-" + i);
+            inv.setUserId(USER_ID);
+            inv.setFinancialYear(FINANCIAL_YEAR);
+            inv.setType(types[random.nextInt(types.length)]);
+            inv.setSection(sections[random.nextInt(sections.length)]);
+            inv.setAmount(1000.0 + random.nextInt(50000));
+            inv.setDescription("Investment " + i);
+            inv.setCreatedAt(LocalDateTime.now());
+            inv.setUpdatedAt(LocalDateTime.now());
+            list.add(inv);
+        }
+        return list;
+    }
+
+    static UserInvestment walletSection(Section section, int slots) {
+        Random random = new Random(section.ordinal());
+        UserInvestment ui = new UserInvestment();
+        ui.setId("section-" + section.name());
+        ui.setUserId(USER_ID);
+        ui.setFinancialYear(FINANCIAL_YEAR);
+        ui.setSection(section);
+        ui.setLimit(150000.0);
+        List<InvestmentSlot> list = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            list.add(InvestmentSlot.create("Slot " + i, 10.0 + random.nextInt(500)));
+        }
+        ui.setSlots(list);
+        ui.setCreatedAt(LocalDateTime.now());
+        ui.setLastUpdated(LocalDateTime.now());
+        ui.recalculateInvested();
+        return ui;
+    }
+
+    static List<UserInvestment> wallet(int slotsPerSection) {
+        List<UserInvestment> wallet = new ArrayList<>();
+        for (Section section : Section.values()) {
+            wallet.add(walletSection(section, slotsPerSection));
+        }
+        return wallet;
+    }
+
+    static TaxReport taxReport(int investments) {
+        TaxReport report = new TaxReport();
+        report.setId("report-1");
+        report.setUserId(USER_ID);
+        report.setFinancialYear(FINANCIAL_YEAR);
+        report.setTotalIncome(1850000.0);
+        report.setTotalDeductions(150000.0);
+        report.setTaxableIncome(1700000.0);
+        report.setTaxAmount(210000.0);
+        report.setRegime("old");
+        report.setTaxBreakdown(new TaxReport.TaxBreakdown(1850000.0, 210000.0, 350.0));
+        report.setInvestments(TaxReport.InvestmentSnapshot.of(investments(investments)));
+        report.setCreatedAt(LocalDateTime.now());
+        report.setUpdatedAt(LocalDateTime.now());
+        return report;
+    }
+}
@@ -0,0 +1,60 @@
+package com.taxease.benchmark;
+
+import com.taxease.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        Fixtures.inject(jwtUtil, "secret", "benchmark-secret-key-that-is-long-enough-for-hmac-sha-256");
+        Fixtures.inject(jwtUtil, "expiration", 2592000000L);
+        Fixtures.inject(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtil.init();
+        token = jwtUtil.generateToken(Fixtures.USER_ID);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(Fixtures.USER_ID);
+    }
+
+    @Benchmark
+    public String getUserIdFromToken() {
+        return jwtUtil.getUserIdFromToken(token);
+    }
+
+    // What JwtAuthenticationFilter used to do: two full verifications per request
+    @Benchmark
+    public String validateThenParse() {
+        return jwtUtil.validateToken(token) ? jwtUtil.getUserIdFromToken(token) : null;
+    }
+
+    // What JwtAuthenticationFilter does now; repeat tokens hit the verified-token cache
+    @Benchmark
+    public String verifyToken() {
+        return jwtUtil.verifyToken(token);
+    }
+}
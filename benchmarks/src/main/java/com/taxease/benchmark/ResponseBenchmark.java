@@ -0,0 +1,82 @@
+package com.taxease.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.taxease.service.InvestmentService;
+import com.taxease.service.TaxService;
+import com.taxease.service.WalletService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and serializes the small computed responses (tax calculation,
+ * wallet and investment summaries), as a controller does on every request.
+ * The summaries go through the service methods, with Mongo stubbed to return
+ * typical aggregation rows. Run with -Pgc to compare bytes allocated per
+ * operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+    @Param({"reflection", "blackbird"})
+    public String access;
+
+    private ObjectMapper objectMapper;
+    private TaxService taxService;
+    private WalletService walletService;
+    private InvestmentService investmentService;
+
+    @Setup
+    public void setup() {
+        // Mirrors the spring.jackson.* settings and JacksonConfig
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (access.equals("blackbird")) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+        taxService = new TaxService();
+        Fixtures.inject(taxService, "taxSlabEngine", Fixtures.slabEngine());
+        walletService = new WalletService();
+        Fixtures.inject(walletService, "mongoTemplate", Fixtures.aggregating(Fixtures.walletSummaryRows()));
+        investmentService = new InvestmentService();
+        Fixtures.inject(investmentService, "mongoTemplate",
+                Fixtures.aggregating(Fixtures.investmentSummaryRows(100)));
+    }
+
+    @Benchmark
+    public byte[] calculateTax() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taxService.calculateTax(1850000.0, "new", 150000.0));
+    }
+
+    @Benchmark
+    public byte[] walletSummary() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(walletService.getWalletSummary(Fixtures.USER_ID,
+                Fixtures.FINANCIAL_YEAR));
+    }
+
+    @Benchmark
+    public byte[] investmentSummary() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(investmentService.getInvestmentSummary(Fixtures.USER_ID,
+                Fixtures.FINANCIAL_YEAR));
+    }
+}
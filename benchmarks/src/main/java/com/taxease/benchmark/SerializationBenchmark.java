@@ -0,0 +1,58 @@
+package com.taxease.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taxease.model.TaxReport;
+import com.taxease.model.UserInvestment;
+import com.taxease.model.UserInvestment.Section;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private UserInvestment userInvestment;
+    private TaxReport taxReport;
+
+    @Setup
+    public void setup() {
+        // Mirrors the spring.jackson.* settings in application.properties
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        userInvestment = Fixtures.walletSection(Section.SECTION_80C, size);
+        taxReport = Fixtures.taxReport(size);
+    }
+
+    @Benchmark
+    public byte[] userInvestment() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userInvestment);
+    }
+
+    @Benchmark
+    public byte[] taxReport() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taxReport);
+    }
+}
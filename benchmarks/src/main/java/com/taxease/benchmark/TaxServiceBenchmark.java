@@ -0,0 +1,50 @@
+package com.taxease.benchmark;
+
+import com.taxease.dto.TaxDTO;
+import com.taxease.service.TaxService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxServiceBenchmark {
+
+    @Param({"new", "old"})
+    public String regime;
+
+    @Param({"450000", "1850000"})
+    public double income;
+
+    private TaxService taxService;
+
+    @Setup
+    public void setup() {
+        taxService = new TaxService();
+        Fixtures.inject(taxService, "taxSlabEngine", Fixtures.slabEngine());
+    }
+
+    @Benchmark
+    public TaxDTO.CalculateResult calculateTax() {
+        return taxService.calculateTax(income, regime, 150000.0);
+    }
+
+    @Benchmark
+    public double calculateTaxAmount() {
+        return taxService.calculateTaxAmount(income - 150000.0, regime, Fixtures.FINANCIAL_YEAR);
+    }
+}
@@ -0,0 +1,42 @@
+package com.taxease.benchmark;
+
+import com.taxease.model.UserInvestment;
+import com.taxease.model.UserInvestment.Section;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WalletBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int slots;
+
+    private UserInvestment section;
+
+    @Setup
+    public void setup() {
+        section = Fixtures.walletSection(Section.SECTION_80C, slots);
+    }
+
+    @Benchmark
+    public Double recalculateInvested() {
+        section.recalculateInvested();
+        return section.getInvested();
+    }
+}